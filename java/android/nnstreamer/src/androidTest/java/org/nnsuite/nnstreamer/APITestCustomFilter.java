@@ -275,6 +275,403 @@ public class APITestCustomFilter {
         }
     }
 
+    @Test
+    public void testInPlaceFilter() {
+        TensorsInfo inputInfo = new TensorsInfo();
+        inputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+
+        TensorsInfo outputInfo = new TensorsInfo();
+        outputInfo.addTensorInfo(NNStreamer.TensorType.FLOAT32, new int[]{10});
+
+        /* convert data type to float and add constant, write the result into the output buffer */
+        CustomFilter customInPlace = CustomFilter.createInPlace("custom-in-place",
+                inputInfo, outputInfo, new CustomFilter.InPlaceCallback() {
+            @Override
+            public boolean invoke(TensorsData in, TensorsData out) {
+                ByteBuffer input = in.getTensorData(0);
+                ByteBuffer output = out.getTensorData(0);
+
+                /* the input buffer may be shared with other elements */
+                if (!input.isReadOnly() || output.isReadOnly()) {
+                    mInvalidState = true;
+                }
+
+                for (int i = 0; i < 10; i++) {
+                    output.putFloat(i * 4, input.getInt(i * 4) + 1.5f);
+                }
+
+                return true;
+            }
+        });
+
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)10,type=(string)int32,framerate=(fraction)0/1 ! " +
+                "tensor_filter framework=custom-easy model=" + customInPlace.getName() + " ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsData in = TensorsData.allocate(inputInfo);
+            ByteBuffer input = in.getTensorData(0);
+
+            for (int j = 0; j < 10; j++) {
+                input.putInt(j * 4, j);
+            }
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer repeatedly */
+            for (int i = 0; i < 64; i++) {
+                pipe.inputData("srcx", in);
+                Thread.sleep(20);
+            }
+
+            /* sleep 300 to pass all input buffers to sink */
+            Thread.sleep(300);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(64, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+
+        customInPlace.close();
+    }
+
+    @Test
+    public void testRegisterInPlaceNullCallback_n() {
+        TensorsInfo inputInfo = new TensorsInfo();
+        inputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+
+        TensorsInfo outputInfo = inputInfo.clone();
+
+        try {
+            CustomFilter.createInPlace("custom-in-place-invalid-cb", inputInfo, outputInfo, null);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testChainFilter() {
+        TensorsInfo inputInfo = new TensorsInfo();
+        inputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+
+        final TensorsInfo outputInfo = new TensorsInfo();
+        outputInfo.addTensorInfo(NNStreamer.TensorType.FLOAT32, new int[]{10});
+
+        /* passthrough, convert data type to float, and add constant in a filter */
+        CustomFilter customChain = CustomFilter.createChain("custom-chain",
+                inputInfo, outputInfo, new CustomFilter.Callback() {
+            @Override
+            public TensorsData invoke(TensorsData in) {
+                return in;
+            }
+        }, new CustomFilter.Callback() {
+            @Override
+            public TensorsData invoke(TensorsData in) {
+                TensorsData out = outputInfo.allocate();
+                ByteBuffer input = in.getTensorData(0);
+                ByteBuffer output = out.getTensorData(0);
+
+                for (int i = 0; i < 10; i++) {
+                    output.putFloat(i * 4, (float) input.getInt(i * 4));
+                }
+
+                return out;
+            }
+        }, new CustomFilter.Callback() {
+            @Override
+            public TensorsData invoke(TensorsData in) {
+                TensorsData out = outputInfo.allocate();
+                ByteBuffer input = in.getTensorData(0);
+                ByteBuffer output = out.getTensorData(0);
+
+                for (int i = 0; i < 10; i++) {
+                    output.putFloat(i * 4, input.getFloat(i * 4) + 1.5f);
+                }
+
+                return out;
+            }
+        });
+
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)10,type=(string)int32,framerate=(fraction)0/1 ! " +
+                "tensor_filter framework=custom-easy model=" + customChain.getName() + " ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsData in = TensorsData.allocate(inputInfo);
+            ByteBuffer input = in.getTensorData(0);
+
+            for (int j = 0; j < 10; j++) {
+                input.putInt(j * 4, j);
+            }
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer repeatedly */
+            for (int i = 0; i < 64; i++) {
+                pipe.inputData("srcx", in);
+                Thread.sleep(20);
+            }
+
+            /* sleep 300 to pass all input buffers to sink */
+            Thread.sleep(300);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(64, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+
+        customChain.close();
+    }
+
+    @Test
+    public void testChainFilterReusedData() {
+        TensorsInfo inputInfo = new TensorsInfo();
+        inputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+
+        final TensorsInfo outputInfo = new TensorsInfo();
+        outputInfo.addTensorInfo(NNStreamer.TensorType.FLOAT32, new int[]{10});
+
+        /* the first stage writes the result into the data owned by the application */
+        final TensorsData reused = TensorsData.allocate(outputInfo);
+
+        CustomFilter customChain = CustomFilter.createChain("custom-chain-reused",
+                inputInfo, outputInfo, new CustomFilter.Callback() {
+            @Override
+            public TensorsData invoke(TensorsData in) {
+                ByteBuffer input = in.getTensorData(0);
+                ByteBuffer output = reused.getTensorData(0);
+
+                for (int i = 0; i < 10; i++) {
+                    output.putFloat(i * 4, (float) input.getInt(i * 4));
+                }
+
+                return reused;
+            }
+        }, new CustomFilter.Callback() {
+            @Override
+            public TensorsData invoke(TensorsData in) {
+                TensorsData out = outputInfo.allocate();
+                ByteBuffer input = in.getTensorData(0);
+                ByteBuffer output = out.getTensorData(0);
+
+                for (int i = 0; i < 10; i++) {
+                    output.putFloat(i * 4, input.getFloat(i * 4) + 1.5f);
+                }
+
+                return out;
+            }
+        });
+
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)10,type=(string)int32,framerate=(fraction)0/1 ! " +
+                "tensor_filter framework=custom-easy model=" + customChain.getName() + " ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsData in = TensorsData.allocate(inputInfo);
+            ByteBuffer input = in.getTensorData(0);
+
+            for (int j = 0; j < 10; j++) {
+                input.putInt(j * 4, j);
+            }
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer repeatedly */
+            for (int i = 0; i < 16; i++) {
+                pipe.inputData("srcx", in);
+                Thread.sleep(20);
+            }
+
+            /* sleep 300 to pass all input buffers to sink */
+            Thread.sleep(300);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* the data owned by the application is not closed in the chain */
+            assertFalse(mInvalidState);
+            assertEquals(16, mReceived);
+            assertEquals(1, reused.getTensorsCount());
+        } catch (Exception e) {
+            fail();
+        }
+
+        customChain.close();
+        reused.close();
+    }
+
+    @Test
+    public void testRegisterEmptyChain_n() {
+        TensorsInfo inputInfo = new TensorsInfo();
+        inputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+
+        TensorsInfo outputInfo = inputInfo.clone();
+
+        try {
+            CustomFilter.createChain("custom-chain-invalid", inputInfo, outputInfo);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testStatistics() {
+        TensorsInfo inputInfo = new TensorsInfo();
+        inputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10,1,1,1});
+
+        TensorsInfo outputInfo = inputInfo.clone();
+
+        CustomFilter customDrop = CustomFilter.create("custom-drop-stats",
+                inputInfo, outputInfo, new CustomFilter.Callback() {
+            int received = 0;
+
+            @Override
+            public TensorsData invoke(TensorsData in) {
+                received++;
+
+                if (received <= 5) {
+                    return in;
+                }
+
+                /* return null to drop the incoming buffer */
+                return null;
+            }
+        });
+
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)10:1:1:1,type=(string)int32,framerate=(fraction)0/1 ! " +
+                "tensor_filter framework=custom-easy model=" + customDrop.getName() + " ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10,1,1,1});
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer repeatedly */
+            for (int i = 0; i < 8; i++) {
+                pipe.inputData("srcx", TensorsData.allocate(info));
+                Thread.sleep(20);
+            }
+
+            /* sleep 300 to pass input buffers to sink */
+            Thread.sleep(300);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check the statistics */
+            CustomFilter.Statistics stats = customDrop.getStatistics();
+
+            assertEquals(8, stats.getInvokeCount());
+            assertEquals(3, stats.getDroppedCount());
+            assertEquals(0, stats.getExceptionCount());
+            assertEquals(CustomFilter.Statistics.HISTOGRAM_SIZE, stats.getCallbackTimeHistogram().length);
+            assertEquals(CustomFilter.Statistics.HISTOGRAM_SIZE, stats.getConversionTimeHistogram().length);
+            assertTrue(stats.getAverageCallbackTime() <= stats.getMaxCallbackTime());
+            assertTrue(stats.getAverageConversionTime() <= stats.getMaxConversionTime());
+
+            /* the time is measured in nanoseconds, the conversion of small tensors is not 0 */
+            assertTrue(stats.getAverageConversionTime() > 0);
+            assertTrue(stats.getAverageCallbackTime() > 0);
+
+            long total = 0;
+            for (long count : stats.getCallbackTimeHistogram()) {
+                total += count;
+            }
+            assertEquals(8, total);
+
+            /* reset the statistics */
+            customDrop.resetStatistics();
+
+            stats = customDrop.getStatistics();
+            assertEquals(0, stats.getInvokeCount());
+            assertEquals(0, stats.getDroppedCount());
+            assertEquals(0, stats.getMaxCallbackTime());
+        } catch (Exception e) {
+            fail();
+        }
+
+        customDrop.close();
+    }
+
+    @Test
+    public void testGetStatisticsClosedFilter_n() {
+        TensorsInfo inputInfo = new TensorsInfo();
+        inputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+
+        TensorsInfo outputInfo = inputInfo.clone();
+
+        CustomFilter customFilter = CustomFilter.create("custom-closed",
+                inputInfo, outputInfo, new CustomFilter.Callback() {
+            @Override
+            public TensorsData invoke(TensorsData in) {
+                return in;
+            }
+        });
+
+        customFilter.close();
+
+        try {
+            customFilter.getStatistics();
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testRegisterFlexibleOutput_n() {
+        TensorsInfo inputInfo = new TensorsInfo();
+        inputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+
+        /* custom-filter supports static output only */
+        TensorsInfo outputInfo = new TensorsInfo(NNStreamer.TensorFormat.FLEXIBLE);
+        outputInfo.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+
+        try {
+            CustomFilter.create("custom-flexible-invalid", inputInfo, outputInfo,
+                    new CustomFilter.Callback() {
+                @Override
+                public TensorsData invoke(TensorsData in) {
+                    return in;
+                }
+            });
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
     @Test
     public void testRegisterNullName_n() {
         TensorsInfo inputInfo = new TensorsInfo();
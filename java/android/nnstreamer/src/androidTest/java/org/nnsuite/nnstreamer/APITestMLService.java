@@ -8,6 +8,7 @@ import org.junit.runner.RunWith;
 import static org.junit.Assert.*;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Testcases for MLService.
@@ -106,7 +107,23 @@ public class APITestMLService {
 
             service.start();
 
-            service.inputData("input_img", null);
+            service.inputData("input_img", (TensorsData) null);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInputNullDataList_n() {
+        String config = APITestCommon.getConfigPath() + "/config_pipeline_imgclf.conf";
+
+        try {
+            MLService service = new MLService(config, mEventListener);
+
+            service.start();
+
+            service.inputData("input_img", Arrays.asList(APITestCommon.readRawImageData(), null));
             fail();
         } catch (Exception e) {
             /* expected */
@@ -988,6 +1005,38 @@ public class APITestMLService {
         runImageClassification(config, false);
     }
 
+    @Test
+    public void testRunSingleShotDataList() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        String config = APITestCommon.getConfigPath() + "/config_single_imgclf.conf";
+
+        try {
+            MLService service = new MLService(config, mEventListener);
+
+            service.start();
+
+            /* push input buffers at once */
+            TensorsData input = APITestCommon.readRawImageData();
+
+            service.inputData("input_img", Arrays.asList(input, input, input));
+
+            /* sleep 500 to invoke */
+            Thread.sleep(500);
+
+            /* check received data from output node */
+            assertFalse(mInvalidState);
+            assertEquals(3, mReceived);
+
+            service.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
     @Test
     public void testRunPipelineRegistered() {
         String config = APITestCommon.getConfigPath() + "/config_pipeline_imgclf_key.conf";
@@ -11,7 +11,13 @@ import org.junit.runner.RunWith;
 
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.Assert.*;
 
@@ -404,7 +410,7 @@ public class APITestPipeline {
     }
 
     @Test
-    public void testDuplicatedDataCb() {
+    public void testZeroCopyDataCb() {
         String desc = "appsrc name=srcx ! " +
                 "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
                 "tensor_sink name=sinkx";
@@ -413,51 +419,121 @@ public class APITestPipeline {
             TensorsInfo info = new TensorsInfo();
             info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
 
-            pipe.registerSinkCallback("sinkx", mSinkCb);
+            /* register sink callback without copying the data */
+            pipe.registerSinkCallback("sinkx", mSinkCb, true);
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {
+                    ByteBuffer buffer = data.getTensorData(0);
 
-            /* try to register same cb */
-            pipe.registerSinkCallback("sinkx", mSinkCb);
+                    /* validate received data (pushed value 10) */
+                    if (buffer.get(0) != 10 || buffer.get(199) != 10) {
+                        mInvalidState = true;
+                    }
+                }
+            }, true);
 
             /* start pipeline */
             pipe.start();
 
             /* push input buffer */
             for (int i = 0; i < 10; i++) {
-                /* dummy input */
-                pipe.inputData("srcx", info.allocate());
+                TensorsData input = info.allocate();
+                ByteBuffer buffer = input.getTensorData(0);
+
+                for (int j = 0; j < buffer.capacity(); j++) {
+                    buffer.put(j, (byte) 10);
+                }
+
+                pipe.inputData("srcx", input);
                 Thread.sleep(50);
             }
 
-            /* pause pipeline and unregister sink callback */
+            /* sleep 100 to pass input buffers to sink */
             Thread.sleep(100);
+
+            /* stop pipeline */
             pipe.stop();
 
-            pipe.unregisterSinkCallback("sinkx", mSinkCb);
-            Thread.sleep(100);
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(10, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+    }
 
-            /* start pipeline again */
+    @Test
+    public void testRegisterDataCbOtherMode_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            pipe.registerSinkCallback("sinkx", mSinkCb, true);
+
+            /* the sink is registered in zero-copy mode */
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {}
+            });
+
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testUnregisterDataCbInCallback() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (final Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            final int[] received = new int[1];
+
+            /* register sink callback which unregisters itself while streaming */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {
+                    if (++received[0] == 5) {
+                        pipe.unregisterSinkCallback("sinkx", this);
+                    }
+                }
+            });
+
+            /* start pipeline */
             pipe.start();
 
-            /* push input buffer again */
+            /* push input buffer */
             for (int i = 0; i < 10; i++) {
                 /* dummy input */
                 pipe.inputData("srcx", info.allocate());
                 Thread.sleep(50);
             }
 
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
             /* stop pipeline */
             pipe.stop();
 
             /* check received data from sink */
             assertFalse(mInvalidState);
             assertEquals(10, mReceived);
+            assertEquals(5, received[0]);
         } catch (Exception e) {
             fail();
         }
     }
 
     @Test
-    public void testMultipleDataCb() {
+    public void testSinkQueue() {
         String desc = "appsrc name=srcx ! " +
                 "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
                 "tensor_sink name=sinkx";
@@ -466,24 +542,256 @@ public class APITestPipeline {
             TensorsInfo info = new TensorsInfo();
             info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
 
-            /* register three callbacks */
-            Pipeline.NewDataCallback cb1 = new Pipeline.NewDataCallback() {
+            /* register slow sink callback */
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
                 @Override
                 public void onNewDataReceived(TensorsData data) {
-                    mReceived++;
+                    mSinkCb.onNewDataReceived(data);
+
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        mInvalidState = true;
+                    }
                 }
-            };
+            });
 
-            Pipeline.NewDataCallback cb2 = new Pipeline.NewDataCallback() {
+            pipe.setSinkQueue("sinkx", 2, Pipeline.QueuePolicy.DROP_NEWEST);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer without waiting for the callback */
+            for (int i = 0; i < 10; i++) {
+                /* dummy input */
+                pipe.inputData("srcx", info.allocate());
+                Thread.sleep(10);
+            }
+
+            /* sleep 1000 to deliver the data in the queue */
+            Thread.sleep(1000);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            Pipeline.SinkStatistics stats = pipe.getSinkStatistics("sinkx");
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertTrue(mReceived > 0 && mReceived < 10);
+            assertEquals(mReceived, stats.getDeliveredCount());
+            assertEquals(10, stats.getQueuedCount() + stats.getDroppedCount());
+            assertEquals(0, stats.getQueueLevel());
+            assertTrue(stats.getMaxWaitTime() >= stats.getAverageWaitTime());
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testSetSinkQueueZeroCopy_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            pipe.registerSinkCallback("sinkx", mSinkCb, true);
+
+            /* the data in zero-copy mode cannot be queued */
+            pipe.setSinkQueue("sinkx", 2, Pipeline.QueuePolicy.DROP_OLDEST);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testGetSinkStatisticsNoQueue_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            pipe.getSinkStatistics("sinkx");
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testSinkReader() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            Pipeline.SinkReader reader = pipe.openSinkReader("sinkx", 4);
+            assertEquals(4, reader.getCapacity());
+            assertNull(reader.poll());
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer */
+            for (int i = 0; i < 3; i++) {
+                TensorsData input = info.allocate();
+
+                input.getTensorData(0).put(0, (byte) i);
+                pipe.inputData("srcx", input);
+            }
+
+            /* get the first data */
+            TensorsData data = reader.take(1000);
+
+            assertNotNull(data);
+            assertEquals(200, data.getTensorData(0).capacity());
+            assertEquals(0, data.getTensorData(0).get(0));
+
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            ArrayList<TensorsData> batch = new ArrayList<>();
+
+            assertEquals(2, reader.drainTo(batch));
+            assertEquals(1, batch.get(0).getTensorData(0).get(0));
+            assertEquals(2, batch.get(1).getTensorData(0).get(0));
+            assertEquals(0, reader.getDroppedCount());
+
+            /* stop pipeline */
+            pipe.stop();
+
+            reader.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testOpenSinkReaderInvalidCapacity_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            pipe.openSinkReader("sinkx", 0);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testSinkReaderWithDataCb() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* the reader does not change the mode of the sink node */
+            Pipeline.SinkReader reader = pipe.openSinkReader("sinkx", 4);
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer */
+            pipe.inputData("srcx", info.allocate());
+
+            assertNotNull(reader.take(1000));
+
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            assertFalse(mInvalidState);
+            assertEquals(1, mReceived);
+
+            reader.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testKeepReceivedData() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            final ArrayList<TensorsData> received = new ArrayList<>();
+
+            /* the application owns the data given to the default callback */
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
                 @Override
                 public void onNewDataReceived(TensorsData data) {
-                    mReceived++;
+                    synchronized (received) {
+                        received.add(data);
+                    }
                 }
-            };
+            });
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer */
+            for (int i = 0; i < 3; i++) {
+                TensorsData input = info.allocate();
+
+                input.getTensorData(0).put(0, (byte) (i + 1));
+                pipe.inputData("srcx", input);
+            }
+
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            synchronized (received) {
+                assertEquals(3, received.size());
+
+                for (int i = 0; i < 3; i++) {
+                    TensorsData data = received.get(i);
+
+                    assertEquals(1, data.getTensorsCount());
+                    assertEquals(i + 1, data.getTensorData(0).get(0));
+                    data.close();
+                }
+            }
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testDuplicatedDataCb() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
 
             pipe.registerSinkCallback("sinkx", mSinkCb);
-            pipe.registerSinkCallback("sinkx", cb1);
-            pipe.registerSinkCallback("sinkx", cb2);
+
+            /* try to register same cb */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
 
             /* start pipeline */
             pipe.start();
@@ -500,7 +808,6 @@ public class APITestPipeline {
             pipe.stop();
 
             pipe.unregisterSinkCallback("sinkx", mSinkCb);
-            pipe.unregisterSinkCallback("sinkx", cb1);
             Thread.sleep(100);
 
             /* start pipeline again */
@@ -518,14 +825,82 @@ public class APITestPipeline {
 
             /* check received data from sink */
             assertFalse(mInvalidState);
-            assertEquals(40, mReceived);
+            assertEquals(10, mReceived);
         } catch (Exception e) {
             fail();
         }
     }
 
     @Test
-    public void testPushToTensorTransform() {
+    public void testMultipleDataCb() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* register three callbacks */
+            Pipeline.NewDataCallback cb1 = new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {
+                    mReceived++;
+                }
+            };
+
+            Pipeline.NewDataCallback cb2 = new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {
+                    mReceived++;
+                }
+            };
+
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+            pipe.registerSinkCallback("sinkx", cb1);
+            pipe.registerSinkCallback("sinkx", cb2);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer */
+            for (int i = 0; i < 10; i++) {
+                /* dummy input */
+                pipe.inputData("srcx", info.allocate());
+                Thread.sleep(50);
+            }
+
+            /* pause pipeline and unregister sink callback */
+            Thread.sleep(100);
+            pipe.stop();
+
+            pipe.unregisterSinkCallback("sinkx", mSinkCb);
+            pipe.unregisterSinkCallback("sinkx", cb1);
+            Thread.sleep(100);
+
+            /* start pipeline again */
+            pipe.start();
+
+            /* push input buffer again */
+            for (int i = 0; i < 10; i++) {
+                /* dummy input */
+                pipe.inputData("srcx", info.allocate());
+                Thread.sleep(50);
+            }
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(40, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testPushToTensorTransform() {
         String desc = "appsrc name=srcx ! " +
                 "other/tensor,dimension=(string)5:1:1:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
                 "tensor_transform mode=arithmetic option=typecast:float32,add:0.5 ! " +
@@ -570,189 +945,757 @@ public class APITestPipeline {
             /* start pipeline */
             pipe.start();
 
-            /* push input buffer */
-            for (int i = 0; i < 10; i++) {
-                TensorsData in = info.allocate();
-                ByteBuffer buffer = in.getTensorData(0);
-
-                for (int j = 0; j < 5; j++) {
-                    buffer.put(j, (byte) (j * 2 + i));
-                }
+            /* push input buffer */
+            for (int i = 0; i < 10; i++) {
+                TensorsData in = info.allocate();
+                ByteBuffer buffer = in.getTensorData(0);
+
+                for (int j = 0; j < 5; j++) {
+                    buffer.put(j, (byte) (j * 2 + i));
+                }
+
+                in.setTensorData(0, buffer);
+
+                pipe.inputData("srcx", in);
+                Thread.sleep(50);
+            }
+
+            /* pause pipeline and unregister sink callback */
+            Thread.sleep(200);
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(10, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testRunModel() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        File model = APITestCommon.getTFLiteImgModel();
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)3:224:224:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_filter framework=tensorflow-lite model=" + model.getAbsolutePath() + " ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{3,224,224,1});
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {
+                    if (data == null || data.getTensorsCount() != 1) {
+                        mInvalidState = true;
+                        return;
+                    }
+
+                    TensorsInfo info = data.getTensorsInfo();
+
+                    if (info == null || info.getTensorsCount() != 1) {
+                        mInvalidState = true;
+                    } else {
+                        ByteBuffer output = data.getTensorData(0);
+
+                        if (!APITestCommon.isValidBuffer(output, 1001)) {
+                            mInvalidState = true;
+                        }
+                    }
+
+                    mReceived++;
+                }
+            });
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer */
+            for (int i = 0; i < 15; i++) {
+                /* dummy input */
+                pipe.inputData("srcx", TensorsData.allocate(info));
+                Thread.sleep(100);
+            }
+
+            /* sleep 500 to invoke */
+            Thread.sleep(500);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertTrue(mReceived > 0);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testClassificationResult() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        File model = APITestCommon.getTFLiteImgModel();
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)3:224:224:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_filter framework=tensorflow-lite model=" + model.getAbsolutePath() + " ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {
+                    if (data == null || data.getTensorsCount() != 1) {
+                        mInvalidState = true;
+                        return;
+                    }
+
+                    ByteBuffer buffer = data.getTensorData(0);
+                    int labelIndex = APITestCommon.getMaxScore(buffer);
+
+                    /* check label index (orange) */
+                    if (labelIndex != 951) {
+                        mInvalidState = true;
+                    }
+
+                    mReceived++;
+                }
+            });
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer */
+            TensorsData in = APITestCommon.readRawImageData();
+            pipe.inputData("srcx", in);
+
+            /* sleep 1000 to invoke */
+            Thread.sleep(1000);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertTrue(mReceived > 0);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInputBuffer() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer repeatedly */
+            for (int i = 0; i < 2048; i++) {
+                /* dummy input */
+                pipe.inputData("srcx", TensorsData.allocate(info));
+                Thread.sleep(20);
+            }
+
+            /* sleep 300 to pass input buffers to sink */
+            Thread.sleep(300);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertTrue(mReceived > 0);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testTransferData() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            TensorsData input = info.allocate();
+
+            /* push the data and reuse it after the pipeline releases it */
+            for (int i = 0; i < 10; i++) {
+                CompletableFuture<TensorsData> future = pipe.transferData("srcx", input);
+
+                assertSame(input, future.get(1, TimeUnit.SECONDS));
+            }
+
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(10, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testTransferInvalidData_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{4,10,10,1});
+
+            /* start pipeline */
+            pipe.start();
+
+            /* the size of data is not matched with the caps */
+            pipe.transferData("srcx", info.allocate());
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInputDataList() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            ArrayList<TensorsData> list = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                list.add(info.allocate());
+            }
+
+            /* push the frames without and with timestamps (33ms duration) */
+            pipe.inputData("srcx", list);
+            pipe.inputData("srcx", list, 0, 33000000);
+
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(10, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInputEmptyDataList_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            /* start pipeline */
+            pipe.start();
+
+            pipe.inputData("srcx", new ArrayList<TensorsData>());
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInputDataListInvalidTimestamp_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* start pipeline */
+            pipe.start();
+
+            pipe.inputData("srcx", Arrays.asList(info.allocate()), -1, 33000000);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInputStampedData() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            final ArrayList<Long> sequences = new ArrayList<>();
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {
+                    if (data == null || data.getTimestamp() < 0) {
+                        mInvalidState = true;
+                        return;
+                    }
+
+                    sequences.add(data.getSequenceId());
+                }
+            });
+
+            /* start pipeline */
+            pipe.start();
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, pipe.inputStampedData("srcx", info.allocate()));
+                Thread.sleep(30);
+            }
+
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check the stamp of received data */
+            assertFalse(mInvalidState);
+            assertEquals(10, sequences.size());
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, (long) sequences.get(i));
+            }
+
+            Pipeline.LatencyStatistics stats = pipe.getSinkLatency("sinkx");
+
+            assertEquals(10, stats.getCount());
+            assertTrue(stats.getP50Latency() <= stats.getP99Latency());
+            assertTrue(stats.getP99Latency() <= stats.getMaxLatency());
+
+            /* reset latency */
+            pipe.resetSinkLatency("sinkx");
+            assertEquals(0, pipe.getSinkLatency("sinkx").getCount());
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInputStampedDataWithOtherSource() {
+        /* videotestsrc sets the offset fields of the buffers */
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)3:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! fn.sink_0 " +
+                "videotestsrc num-buffers=10 ! videoconvert ! video/x-raw,format=RGB,width=10,height=10 ! " +
+                "tensor_converter ! fn.sink_1 " +
+                "funnel name=fn ! tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{3,10,10,1});
+
+            final ArrayList<Long> sequences = new ArrayList<>();
+            final int[] unstamped = new int[]{0};
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
+                @Override
+                public void onNewDataReceived(TensorsData data) {
+                    if (data.getSequenceId() < 0) {
+                        if (data.getTimestamp() >= 0) {
+                            mInvalidState = true;
+                        }
+
+                        unstamped[0]++;
+                    } else {
+                        sequences.add(data.getSequenceId());
+                    }
+                }
+            });
+
+            /* start pipeline */
+            pipe.start();
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, pipe.inputStampedData("srcx", info.allocate()));
+                Thread.sleep(30);
+            }
+
+            /* sleep 200 to pass input buffers to sink */
+            Thread.sleep(200);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* the frames from videotestsrc are not regarded as stamped frames */
+            assertFalse(mInvalidState);
+            assertEquals(10, unstamped[0]);
+            assertEquals(5, sequences.size());
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, (long) sequences.get(i));
+            }
+
+            assertEquals(5, pipe.getSinkLatency("sinkx").getCount());
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testGetSinkLatencyInvalidName_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            pipe.getSinkLatency("");
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testRequest() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            ArrayList<CompletableFuture<TensorsData>> futures = new ArrayList<>();
+
+            /* start pipeline */
+            pipe.start();
+
+            /* many requests in flight */
+            for (int i = 0; i < 10; i++) {
+                TensorsData input = info.allocate();
+
+                input.getTensorData(0).put(0, (byte) i);
+                futures.add(pipe.request("srcx", "sinkx", input, 1000));
+            }
+
+            for (int i = 0; i < 10; i++) {
+                TensorsData output = futures.get(i).get(2, TimeUnit.SECONDS);
+
+                assertEquals(i, output.getTensorData(0).get(0));
+            }
+
+            /* stop pipeline */
+            pipe.stop();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testRequestWithDataCb() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* start pipeline */
+            pipe.start();
+
+            TensorsData input = info.allocate();
+            input.getTensorData(0).put(0, (byte) 7);
+
+            TensorsData output = pipe.request("srcx", "sinkx", input, 1000).get(2, TimeUnit.SECONDS);
+            assertEquals(7, output.getTensorData(0).get(0));
+
+            /* the pending requests do not change the mode of the sink node */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+            pipe.inputData("srcx", info.allocate());
+
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            assertFalse(mInvalidState);
+            assertEquals(1, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testRequestWithOtherSource() {
+        /* videotestsrc feeds unstamped frames with the offset fields to the same sink */
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)3:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! fn.sink_0 " +
+                "videotestsrc num-buffers=30 ! videoconvert ! video/x-raw,format=RGB,width=10,height=10 ! " +
+                "tensor_converter ! fn.sink_1 " +
+                "funnel name=fn ! tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{3,10,10,1});
+
+            ArrayList<CompletableFuture<TensorsData>> futures = new ArrayList<>();
+
+            /* start pipeline */
+            pipe.start();
+
+            for (int i = 0; i < 10; i++) {
+                TensorsData input = info.allocate();
+
+                input.getTensorData(0).put(0, (byte) (i + 100));
+                futures.add(pipe.request("srcx", "sinkx", input, 1000));
+                Thread.sleep(10);
+            }
+
+            /* each request is completed with its own frame */
+            for (int i = 0; i < 10; i++) {
+                TensorsData output = futures.get(i).get(2, TimeUnit.SECONDS);
+
+                assertEquals(i, output.getSequenceId());
+                assertEquals(i + 100, output.getTensorData(0).get(0));
+            }
+
+            /* stop pipeline */
+            pipe.stop();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testRequestTimeout() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "valve name=valvex ! tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* start pipeline */
+            pipe.start();
+
+            /* close the valve to drop the frame */
+            pipe.controlValve("valvex", false);
 
-                in.setTensorData(0, buffer);
+            CompletableFuture<TensorsData> future = pipe.request("srcx", "sinkx", info.allocate(), 100);
 
-                pipe.inputData("srcx", in);
-                Thread.sleep(50);
+            try {
+                future.get(1, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TimeoutException);
             }
 
-            /* pause pipeline and unregister sink callback */
-            Thread.sleep(200);
+            /* stop pipeline */
             pipe.stop();
-
-            /* check received data from sink */
-            assertFalse(mInvalidState);
-            assertEquals(10, mReceived);
         } catch (Exception e) {
             fail();
         }
     }
 
     @Test
-    public void testRunModel() {
-        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
-            /* cannot run the test */
-            return;
+    public void testRequestInvalidTimeout_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* start pipeline */
+            pipe.start();
+
+            pipe.request("srcx", "sinkx", info.allocate(), -1);
+            fail();
+        } catch (Exception e) {
+            /* expected */
         }
+    }
 
-        File model = APITestCommon.getTFLiteImgModel();
+    @Test
+    public void testTryInputData() {
         String desc = "appsrc name=srcx ! " +
-                "other/tensor,dimension=(string)3:224:224:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
-                "tensor_filter framework=tensorflow-lite model=" + model.getAbsolutePath() + " ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
                 "tensor_sink name=sinkx";
 
         try (Pipeline pipe = new Pipeline(desc)) {
             TensorsInfo info = new TensorsInfo();
-            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{3,224,224,1});
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
 
             /* register sink callback */
-            pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
-                @Override
-                public void onNewDataReceived(TensorsData data) {
-                    if (data == null || data.getTensorsCount() != 1) {
-                        mInvalidState = true;
-                        return;
-                    }
-
-                    TensorsInfo info = data.getTensorsInfo();
-
-                    if (info == null || info.getTensorsCount() != 1) {
-                        mInvalidState = true;
-                    } else {
-                        ByteBuffer output = data.getTensorData(0);
+            pipe.registerSinkCallback("sinkx", mSinkCb);
 
-                        if (!APITestCommon.isValidBuffer(output, 1001)) {
-                            mInvalidState = true;
-                        }
-                    }
+            TensorsData input = info.allocate();
 
-                    mReceived++;
-                }
-            });
+            /* pipeline is not started */
+            assertEquals(Pipeline.InputStatus.NOT_PLAYING, pipe.tryInputData("srcx", input));
 
             /* start pipeline */
             pipe.start();
 
-            /* push input buffer */
-            for (int i = 0; i < 15; i++) {
-                /* dummy input */
-                pipe.inputData("srcx", TensorsData.allocate(info));
-                Thread.sleep(100);
+            /* wait for the state changed to playing */
+            Thread.sleep(200);
+
+            assertTrue(pipe.getSourceQueueCapacity("srcx") > 0);
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(Pipeline.InputStatus.ACCEPTED, pipe.tryInputData("srcx", input));
+                Thread.sleep(30);
             }
 
-            /* sleep 500 to invoke */
-            Thread.sleep(500);
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            assertEquals(0, pipe.getSourceQueueLevel("srcx"));
 
             /* stop pipeline */
             pipe.stop();
 
             /* check received data from sink */
             assertFalse(mInvalidState);
-            assertTrue(mReceived > 0);
+            assertEquals(10, mReceived);
         } catch (Exception e) {
             fail();
         }
     }
 
     @Test
-    public void testClassificationResult() {
-        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
-            /* cannot run the test */
-            return;
-        }
-
-        File model = APITestCommon.getTFLiteImgModel();
-        String desc = "appsrc name=srcx ! " +
-                "other/tensor,dimension=(string)3:224:224:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
-                "tensor_filter framework=tensorflow-lite model=" + model.getAbsolutePath() + " ! " +
+    public void testTryInputDataQueueFull() {
+        /* the queue of appsrc can hold 2 frames (uint8 2:10:10:1, 200 bytes) */
+        String desc = "appsrc name=srcx max-bytes=400 ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
                 "tensor_sink name=sinkx";
 
         try (Pipeline pipe = new Pipeline(desc)) {
-            /* register sink callback */
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            final CountDownLatch blocked = new CountDownLatch(1);
+
+            /* block the streaming thread until the queue is checked */
             pipe.registerSinkCallback("sinkx", new Pipeline.NewDataCallback() {
                 @Override
                 public void onNewDataReceived(TensorsData data) {
-                    if (data == null || data.getTensorsCount() != 1) {
-                        mInvalidState = true;
-                        return;
-                    }
-
-                    ByteBuffer buffer = data.getTensorData(0);
-                    int labelIndex = APITestCommon.getMaxScore(buffer);
-
-                    /* check label index (orange) */
-                    if (labelIndex != 951) {
-                        mInvalidState = true;
+                    try {
+                        blocked.await(2, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
                     }
-
-                    mReceived++;
                 }
             });
 
+            TensorsData input = info.allocate();
+
             /* start pipeline */
             pipe.start();
 
-            /* push input buffer */
-            TensorsData in = APITestCommon.readRawImageData();
-            pipe.inputData("srcx", in);
+            /* wait for the state changed to playing */
+            Thread.sleep(200);
 
-            /* sleep 1000 to invoke */
-            Thread.sleep(1000);
+            assertEquals(400, pipe.getSourceQueueCapacity("srcx"));
+
+            /* the first frame is held in the sink callback */
+            assertEquals(Pipeline.InputStatus.ACCEPTED, pipe.tryInputData("srcx", input));
+            Thread.sleep(100);
+
+            /* fill the queue */
+            assertEquals(Pipeline.InputStatus.ACCEPTED, pipe.tryInputData("srcx", input));
+            assertEquals(Pipeline.InputStatus.ACCEPTED, pipe.tryInputData("srcx", input));
+            assertEquals(400, pipe.getSourceQueueLevel("srcx"));
+
+            /* the queue is full, the data is not pushed and the caller is not blocked */
+            long start = System.nanoTime();
+
+            assertEquals(Pipeline.InputStatus.QUEUE_FULL, pipe.tryInputData("srcx", input));
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+            assertEquals(400, pipe.getSourceQueueLevel("srcx"));
+
+            /* release the streaming thread */
+            blocked.countDown();
+
+            /* sleep 100 to pass input buffers to sink */
+            Thread.sleep(100);
+
+            assertEquals(0, pipe.getSourceQueueLevel("srcx"));
+            assertEquals(Pipeline.InputStatus.ACCEPTED, pipe.tryInputData("srcx", input));
 
             /* stop pipeline */
             pipe.stop();
-
-            /* check received data from sink */
-            assertFalse(mInvalidState);
-            assertTrue(mReceived > 0);
         } catch (Exception e) {
             fail();
         }
     }
 
     @Test
-    public void testInputBuffer() {
+    public void testTryInputNullData_n() {
         String desc = "appsrc name=srcx ! " +
                 "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
                 "tensor_sink name=sinkx";
 
         try (Pipeline pipe = new Pipeline(desc)) {
-            TensorsInfo info = new TensorsInfo();
-            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
-
-            /* register sink callback */
-            pipe.registerSinkCallback("sinkx", mSinkCb);
-
             /* start pipeline */
             pipe.start();
 
-            /* push input buffer repeatedly */
-            for (int i = 0; i < 2048; i++) {
-                /* dummy input */
-                pipe.inputData("srcx", TensorsData.allocate(info));
-                Thread.sleep(20);
-            }
-
-            /* sleep 300 to pass input buffers to sink */
-            Thread.sleep(300);
-
-            /* stop pipeline */
-            pipe.stop();
-
-            /* check received data from sink */
-            assertFalse(mInvalidState);
-            assertTrue(mReceived > 0);
-        } catch (Exception e) {
+            pipe.tryInputData("srcx", null);
             fail();
+        } catch (Exception e) {
+            /* expected */
         }
     }
 
@@ -951,7 +1894,7 @@ public class APITestPipeline {
             /* start pipeline */
             pipe.start();
 
-            pipe.inputData("srcx", null);
+            pipe.inputData("srcx", (TensorsData) null);
             fail();
         } catch (Exception e) {
             /* expected */
@@ -1025,6 +1968,61 @@ public class APITestPipeline {
         }
     }
 
+    @Test
+    public void testSelectSwitchHandle() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "output-selector name=outs " +
+                "outs.src_0 ! tensor_sink name=sinkx async=false " +
+                "outs.src_1 ! tensor_sink async=false";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            /* get the handles of the elements */
+            Pipeline.Source source = pipe.getSource("srcx");
+            Pipeline.Sink sink = pipe.getSink("sinkx");
+            Pipeline.Switch outs = pipe.getSwitch("outs");
+
+            assertEquals("srcx", source.getName());
+            assertEquals("outs", outs.getName());
+
+            /* the handle of the source node is resolved once */
+            assertSame(source, pipe.getSource("srcx"));
+
+            /* register sink callback */
+            sink.registerCallback(mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer */
+            for (int i = 0; i < 15; i++) {
+                /* dummy input */
+                source.push(info.allocate());
+                Thread.sleep(50);
+
+                if (i == 9) {
+                    /* select pad */
+                    outs.select("src_1");
+                }
+            }
+
+            /* sleep 300 to pass all input buffers to sink */
+            Thread.sleep(300);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(10, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
     @Test
     public void testGetSwitchPad() {
         String desc = "appsrc name=srcx ! " +
@@ -1252,6 +2250,68 @@ public class APITestPipeline {
         }
     }
 
+    @Test
+    public void testControlValveHandle() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "tee name=t " +
+                "t. ! queue ! tensor_sink " +
+                "t. ! queue ! valve name=valvex ! tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2,10,10,1});
+
+            Pipeline.Source source = pipe.getSource("srcx");
+            Pipeline.Valve valve = pipe.getValve("valvex");
+
+            /* register sink callback */
+            pipe.registerSinkCallback("sinkx", mSinkCb);
+
+            /* start pipeline */
+            pipe.start();
+
+            /* push input buffer */
+            for (int i = 0; i < 15; i++) {
+                /* dummy input */
+                source.push(info.allocate());
+                Thread.sleep(50);
+
+                if (i == 9) {
+                    /* close valve */
+                    valve.setOpen(false);
+                }
+            }
+
+            /* sleep 300 to pass all input buffers to sink */
+            Thread.sleep(300);
+
+            /* stop pipeline */
+            pipe.stop();
+
+            /* check received data from sink */
+            assertFalse(mInvalidState);
+            assertEquals(10, mReceived);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testGetInvalidValveHandle_n() {
+        String desc = "appsrc name=srcx ! " +
+                "other/tensor,dimension=(string)2:10:10:1,type=(string)uint8,framerate=(fraction)0/1 ! " +
+                "valve name=valvex ! tensor_sink name=sinkx";
+
+        try (Pipeline pipe = new Pipeline(desc)) {
+            /* the element is not a valve */
+            pipe.getValve("srcx");
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
     @Test
     public void testControlInvalidValve_n() {
         String desc = "appsrc name=srcx ! " +
@@ -8,6 +8,13 @@ import org.junit.runner.RunWith;
 
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -491,6 +498,308 @@ public class APITestSingleShot {
         }
     }
 
+    @Test
+    public void testInvokeWithOutput() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+            TensorsData in = APITestCommon.readRawImageData();
+            TensorsData out = single.getOutputInfo().allocate();
+            ByteBuffer buffer = out.getTensorData(0);
+
+            /* reuse the output data */
+            for (int i = 0; i < 10; i++) {
+                single.invoke(in, out);
+
+                /* output: uint8 1001:1 */
+                assertEquals(1, out.getTensorsCount());
+                assertSame(buffer, out.getTensorData(0));
+
+                /* check label index (orange) */
+                assertEquals(951, APITestCommon.getMaxScore(out.getTensorData(0)));
+            }
+
+            single.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInvokeMappedData() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+            File raw = new File(APITestCommon.getRootDirectory() + "/nnstreamer/test/orange.raw");
+
+            /* input: uint8 3:224:224:1 */
+            TensorsData in = TensorsData.map(single.getInputInfo(), raw, 0, true);
+
+            assertTrue(in.getTensorData(0).isReadOnly());
+
+            TensorsData out = single.invoke(in);
+
+            /* check label index (orange) */
+            assertEquals(951, APITestCommon.getMaxScore(out.getTensorData(0)));
+
+            single.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInvokeNullOutput_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+
+            single.invoke(single.getInputInfo().allocate(), null);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvokeInvalidOutput_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        /* output data size: 1001 */
+        TensorsInfo info = new TensorsInfo();
+        info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{100});
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+
+            single.invoke(single.getInputInfo().allocate(), TensorsData.allocate(info));
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvokeReadOnlyOutput_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+            File raw = new File(APITestCommon.getRootDirectory() + "/nnstreamer/test/orange.raw");
+
+            /* output data mapped with read-only mode (uint8 1001:1) */
+            TensorsData out = TensorsData.map(single.getOutputInfo(), raw, 0, true);
+
+            try {
+                single.invoke(single.getInputInfo().allocate(), out);
+                fail();
+            } catch (IllegalArgumentException e) {
+                /* expected */
+            }
+
+            single.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInvokeAsync() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+            TensorsData in = APITestCommon.readRawImageData();
+            ArrayList<CompletableFuture<TensorsData>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 10; i++) {
+                futures.add(single.invokeAsync(in));
+            }
+
+            for (CompletableFuture<TensorsData> future : futures) {
+                TensorsData out = future.get(10, TimeUnit.SECONDS);
+
+                /* check label index (orange) */
+                assertEquals(951, APITestCommon.getMaxScore(out.getTensorData(0)));
+            }
+
+            single.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInvokeAsyncRejected() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+            TensorsData in = APITestCommon.readRawImageData();
+            ArrayList<CompletableFuture<TensorsData>> futures = new ArrayList<>();
+            int rejected = 0;
+
+            single.setAsyncQueue(1, SingleShot.RejectionPolicy.ABORT);
+
+            for (int i = 0; i < 10; i++) {
+                futures.add(single.invokeAsync(in));
+            }
+
+            for (CompletableFuture<TensorsData> future : futures) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof RejectedExecutionException);
+                    rejected++;
+                }
+            }
+
+            assertTrue(rejected > 0);
+
+            single.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInvokeAsyncNullData_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+
+            single.invokeAsync(null);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvokeAsyncClosed_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+            TensorsData in = TensorsData.allocate(single.getInputInfo());
+
+            single.invokeAsync(in).get();
+            single.close();
+
+            single.invokeAsync(in);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvokeAsyncCloseWhileBlocked() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            final SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+            final TensorsData in = APITestCommon.readRawImageData();
+            final List<CompletableFuture<TensorsData>> futures =
+                    Collections.synchronizedList(new ArrayList<CompletableFuture<TensorsData>>());
+            final boolean[] closed = new boolean[1];
+
+            single.setAsyncQueue(1, SingleShot.RejectionPolicy.BLOCK);
+
+            /* the queue is full soon, then the thread waits for the queue in invokeAsync */
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 100; i++) {
+                            futures.add(single.invokeAsync(in));
+                        }
+                    } catch (IllegalStateException e) {
+                        closed[0] = true;
+                    }
+                }
+            });
+
+            thread.start();
+
+            while (futures.size() < 3) {
+                Thread.sleep(10);
+            }
+
+            /* close while the request is blocked, this should not wait for the blocked thread */
+            single.close();
+
+            thread.join(10000);
+            assertFalse(thread.isAlive());
+            assertTrue(closed[0]);
+
+            /* every request is done with the result or the error */
+            for (CompletableFuture<TensorsData> future : futures) {
+                try {
+                    TensorsData out = future.get(10, TimeUnit.SECONDS);
+
+                    /* check label index (orange) */
+                    assertEquals(951, APITestCommon.getMaxScore(out.getTensorData(0)));
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException);
+                }
+            }
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testSetInvalidAsyncQueue_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteImgModel());
+
+            single.setAsyncQueue(0, SingleShot.RejectionPolicy.BLOCK);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
     @Test
     public void testSetInvalidTimeout_n() {
         if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
@@ -0,0 +1,134 @@
+package org.nnsuite.nnstreamer;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testcases for SingleShotBatcher.
+ */
+@RunWith(AndroidJUnit4.class)
+public class APITestSingleShotBatcher {
+    @Before
+    public void setUp() {
+        APITestCommon.initNNStreamer();
+    }
+
+    @Test
+    public void testNullSingleShot_n() {
+        try {
+            new SingleShotBatcher(null, 4, 10);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvalidBatchSize_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteAddModel());
+
+            new SingleShotBatcher(single, 0, 10);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvokeBatch() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteAddModel());
+            SingleShotBatcher batcher = new SingleShotBatcher(single, 4, 100);
+            ArrayList<CompletableFuture<TensorsData>> futures = new ArrayList<>();
+
+            /* input: float32 1:1:1:1 */
+            TensorsInfo info = batcher.getInputInfo();
+            assertArrayEquals(new int[]{1,1,1,1}, info.getTensorDimension(0));
+
+            for (int i = 0; i < 10; i++) {
+                TensorsData input = info.allocate();
+
+                input.getTensorData(0).putFloat(0, i + 1.5f);
+                futures.add(batcher.invoke(input));
+            }
+
+            for (int i = 0; i < 10; i++) {
+                TensorsData output = futures.get(i).get(10, TimeUnit.SECONDS);
+
+                /* output: float32 1:1:1:1 */
+                assertEquals(1, output.getTensorsCount());
+                assertEquals(Float.BYTES, output.getTensorData(0).capacity());
+                assertEquals(i + 3.5f, output.getTensorData(0).getFloat(0), 0.0f);
+            }
+
+            assertEquals(10, batcher.getRequestCount());
+            assertTrue(batcher.getBatchCount() < 10);
+
+            batcher.close();
+            single.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInvokeInvalidData_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteAddModel());
+            SingleShotBatcher batcher = new SingleShotBatcher(single, 4, 10);
+            TensorsInfo info = new TensorsInfo();
+
+            info.addTensorInfo(NNStreamer.TensorType.FLOAT32, new int[]{2,1,1,1});
+
+            batcher.invoke(info.allocate());
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvokeAfterClose_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShot single = new SingleShot(APITestCommon.getTFLiteAddModel());
+            SingleShotBatcher batcher = new SingleShotBatcher(single, 4, 10);
+            TensorsInfo info = batcher.getInputInfo();
+
+            batcher.close();
+            batcher.invoke(info.allocate());
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+}
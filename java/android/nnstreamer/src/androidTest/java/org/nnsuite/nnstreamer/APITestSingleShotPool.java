@@ -0,0 +1,178 @@
+package org.nnsuite.nnstreamer;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testcases for SingleShotPool.
+ */
+@RunWith(AndroidJUnit4.class)
+public class APITestSingleShotPool {
+    @Before
+    public void setUp() {
+        APITestCommon.initNNStreamer();
+    }
+
+    private SingleShot.Options getOptions() {
+        return new SingleShot.Options(NNStreamer.NNFWType.TENSORFLOW_LITE, APITestCommon.getTFLiteImgModel());
+    }
+
+    @Test
+    public void testNullOption_n() {
+        try {
+            new SingleShotPool(null, 1);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvalidSize_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            new SingleShotPool(getOptions(), 2, 1);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testAcquire() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShotPool pool = new SingleShotPool(getOptions(), 1, 2);
+
+            assertEquals(1, pool.getSize());
+
+            SingleShotPool.Lease lease1 = pool.acquire(1000);
+            SingleShotPool.Lease lease2 = pool.acquire(1000);
+
+            /* opened a new instance */
+            assertEquals(2, pool.getSize());
+            assertEquals(2, pool.getLeasedCount());
+            assertNotSame(lease1.getSingleShot(), lease2.getSingleShot());
+
+            /* no instance available */
+            assertNull(pool.acquire(100));
+            assertEquals(1, pool.getTimeoutCount());
+
+            lease1.close();
+            lease2.close();
+
+            assertEquals(0, pool.getLeasedCount());
+            assertEquals(2, pool.getLeaseCount());
+
+            /* close idle instance, the pool keeps the minimum */
+            pool.setIdleTimeout(0);
+            assertEquals(1, pool.getSize());
+
+            pool.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testReturnedLease_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShotPool pool = new SingleShotPool(getOptions(), 1);
+            SingleShotPool.Lease lease = pool.acquire(0);
+
+            lease.close();
+            lease.getSingleShot();
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testAcquireAfterClose_n() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            SingleShotPool pool = new SingleShotPool(getOptions(), 1);
+
+            pool.close();
+            pool.acquire(0);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testInvokeConcurrent() {
+        if (!NNStreamer.isAvailable(NNStreamer.NNFWType.TENSORFLOW_LITE)) {
+            /* cannot run the test */
+            return;
+        }
+
+        try {
+            final SingleShotPool pool = new SingleShotPool(getOptions(), 1, 4);
+            final TensorsData in = APITestCommon.readRawImageData();
+            final int[] results = new int[8];
+            ArrayList<Thread> threads = new ArrayList<>();
+
+            for (int i = 0; i < results.length; i++) {
+                final int index = i;
+
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int j = 0; j < 10; j++) {
+                            TensorsData out = pool.invoke(in, 10000);
+
+                            results[index] = APITestCommon.getMaxScore(out.getTensorData(0));
+                        }
+                    }
+                });
+
+                threads.add(thread);
+                thread.start();
+            }
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            /* check label index (orange) */
+            for (int result : results) {
+                assertEquals(951, result);
+            }
+
+            assertEquals(80, pool.getLeaseCount());
+            assertTrue(pool.getSize() <= 4);
+            assertTrue(pool.getUtilization() > 0.0f);
+
+            pool.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+}
@@ -7,8 +7,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.io.File;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 
 import static org.junit.Assert.*;
 
@@ -72,6 +75,13 @@ public class APITestTensorsData {
         }
     }
 
+    @Test
+    public void testNotStampedData() {
+        /* the data allocated by an application does not have the stamp */
+        assertEquals(-1, mData.getSequenceId());
+        assertEquals(-1, mData.getTimestamp());
+    }
+
     @Test
     public void testAllocateEmptyInfo_n() {
         try {
@@ -285,4 +295,318 @@ public class APITestTensorsData {
             fail();
         }
     }
+
+    @Test
+    public void testAllocateFromPool() {
+        try {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{1234});
+
+            TensorsData data = TensorsData.allocate(info);
+            ByteBuffer buffer = data.getTensorData(0);
+
+            buffer.put(0, (byte) 10);
+            data.close();
+
+            long hit = BufferPool.getHitCount();
+
+            /* buffer is reused and cleared */
+            data = TensorsData.allocate(info);
+
+            assertEquals(hit + 1, BufferPool.getHitCount());
+            assertTrue(APITestCommon.isValidBuffer(data.getTensorData(0), 1234));
+            assertEquals(0, data.getTensorData(0).get(0));
+
+            data.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testAllocateFromPoolSizeClass() {
+        try {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{3000});
+
+            TensorsData data = TensorsData.allocate(info);
+            data.getTensorData(0).put(0, (byte) 10);
+            data.close();
+
+            /* the buffer of same size class is reused for different size */
+            info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{3500});
+
+            long hit = BufferPool.getHitCount();
+
+            data = TensorsData.allocate(info);
+
+            assertEquals(hit + 1, BufferPool.getHitCount());
+            assertTrue(APITestCommon.isValidBuffer(data.getTensorData(0), 3500));
+            assertEquals(0, data.getTensorData(0).get(0));
+
+            data.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testPoolUserBuffer() {
+        try {
+            TensorsInfo info = new TensorsInfo();
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{1235});
+
+            ByteBuffer buffer = TensorsData.allocateByteBuffer(1235);
+            TensorsData data = TensorsData.allocate(info);
+
+            data.setTensorData(0, buffer);
+            data.close();
+
+            /* the buffer given by application should not be pooled */
+            data = TensorsData.allocate(info);
+            assertNotSame(buffer, data.getTensorData(0));
+
+            data.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testPoolInvalidLimit_n() {
+        try {
+            BufferPool.setMaxPooledBytes(-1);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testGetTypedTensor() {
+        try {
+            TensorsInfo info = new TensorsInfo();
+
+            info.addTensorInfo(NNStreamer.TensorType.FLOAT32, new int[]{3,4,2});
+            info.addTensorInfo(NNStreamer.TensorType.INT16, new int[]{10});
+
+            TensorsData data = TensorsData.allocate(info);
+            FloatBuffer floatView = data.getFloatTensor(0);
+
+            assertEquals(24, floatView.capacity());
+
+            /* write (c, x, y) = (2, 1, 1) */
+            int element = data.getElementIndex(0, 2, 1, 1);
+            assertEquals(2 + 1 * 3 + 1 * 12, element);
+
+            floatView.put(element, 1.5f);
+            assertEquals(1.5f, data.getTensorData(0).getFloat(element * 4), 0.0f);
+
+            ShortBuffer shortView = data.getShortTensor(1);
+
+            assertEquals(10, shortView.capacity());
+            shortView.put(9, (short) 100);
+            assertEquals(100, data.getTensorData(1).getShort(18));
+
+            data.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testGetTypedTensorInvalidType_n() {
+        try {
+            /* tensor type is uint8 */
+            mData.getFloatTensor(0);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testGetElementIndexInvalidPosition_n() {
+        try {
+            /* tensor dimension is 100 */
+            mData.getElementIndex(0, 100);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testAllocateContiguous() {
+        try {
+            TensorsInfo info = new TensorsInfo();
+
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{10});
+            info.addTensorInfo(NNStreamer.TensorType.FLOAT32, new int[]{4,4});
+            info.addTensorInfo(NNStreamer.TensorType.INT16, new int[]{100});
+
+            TensorsData data = TensorsData.allocate(info, true);
+
+            assertEquals(3, data.getTensorsCount());
+            assertTrue(APITestCommon.isValidBuffer(data.getTensorData(0), 10));
+            assertTrue(APITestCommon.isValidBuffer(data.getTensorData(1), 64));
+            assertTrue(APITestCommon.isValidBuffer(data.getTensorData(2), 200));
+
+            /* tensor offsets: 0, 64, 128 */
+            ByteBuffer slab = data.getContiguousData();
+            assertEquals(128 + 256, slab.capacity());
+
+            data.getTensorData(1).put(0, (byte) 10);
+            data.getTensorData(2).put(0, (byte) 20);
+            assertEquals(10, slab.get(64));
+            assertEquals(20, slab.get(128));
+
+            /* not contiguous after replacing the tensor */
+            data.setTensorData(0, TensorsData.allocateByteBuffer(10));
+            assertNull(data.getContiguousData());
+
+            data.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testAllocateContiguousFlexible_n() {
+        try {
+            TensorsInfo info = new TensorsInfo(NNStreamer.TensorFormat.FLEXIBLE);
+
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{10});
+
+            TensorsData.allocate(info, true);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testAllocateFrozenInfo() {
+        try {
+            TensorsInfo info = new TensorsInfo();
+
+            info.addTensorInfo(NNStreamer.TensorType.FLOAT32, new int[]{10});
+
+            TensorsInfo frozen = info.freeze();
+            TensorsData data = TensorsData.allocate(frozen);
+
+            /* shared without cloning */
+            assertSame(frozen, data.getTensorsInfo());
+            assertTrue(APITestCommon.isValidBuffer(data.getTensorData(0), 40));
+
+            /* the information is cloned if not frozen */
+            data = TensorsData.allocate(info);
+            assertNotSame(info, data.getTensorsInfo());
+            assertFalse(data.getTensorsInfo().isFrozen());
+
+            data.close();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testTrackMemory() {
+        try {
+            TensorsInfo info = new TensorsInfo();
+
+            /* the capacity of pooled buffer is rounded up to the power of two */
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{1024});
+            info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{2048});
+
+            long live = MemoryTracker.getLiveBytes(MemoryTracker.Creator.APPLICATION);
+            TensorsData data = TensorsData.allocate(info);
+
+            assertEquals(live + 3072, MemoryTracker.getLiveBytes(MemoryTracker.Creator.APPLICATION));
+            assertTrue(MemoryTracker.getPeakBytes(MemoryTracker.Creator.APPLICATION) >= live + 3072);
+
+            /* the buffer given by an application is not tracked */
+            data.setTensorData(0, TensorsData.allocateByteBuffer(1024));
+            assertEquals(live + 2048, MemoryTracker.getLiveBytes(MemoryTracker.Creator.APPLICATION));
+
+            data.close();
+            assertEquals(live, MemoryTracker.getLiveBytes(MemoryTracker.Creator.APPLICATION));
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testTrackMemoryNullCreator_n() {
+        try {
+            MemoryTracker.getLiveBytes(null);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testMapFile() {
+        try {
+            File file = File.createTempFile("tensors", ".raw", APITestCommon.getContext().getCacheDir());
+            TensorsInfo info = new TensorsInfo();
+
+            info.addTensorInfo(NNStreamer.TensorType.INT32, new int[]{10});
+            info.addTensorInfo(NNStreamer.TensorType.FLOAT32, new int[]{5});
+
+            /* extends the file with the size of tensors */
+            TensorsData data = TensorsData.map(info, file, 8, false);
+
+            assertEquals(2, data.getTensorsCount());
+            assertEquals(8 + 40 + 20, file.length());
+
+            data.getIntTensor(0).put(9, 100);
+            data.getFloatTensor(1).put(4, 1.5f);
+            data.close();
+
+            /* read the file in read-only mode */
+            TensorsData mapped = TensorsData.map(info, file, 8, true);
+
+            assertTrue(mapped.getTensorData(0).isReadOnly());
+            assertEquals(100, mapped.getIntTensor(0).get(9));
+            assertEquals(1.5f, mapped.getFloatTensor(1).get(4), 0.0f);
+
+            mapped.close();
+            file.delete();
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testMapInvalidOffset_n() {
+        File raw = new File(APITestCommon.getRootDirectory() + "/nnstreamer/test/orange.raw");
+        TensorsInfo info = new TensorsInfo();
+
+        info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{3,224,224,1});
+
+        try {
+            /* the file is smaller than the region */
+            TensorsData.map(info, raw, 1, true);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testMapInvalidFile_n() {
+        TensorsInfo info = new TensorsInfo();
+
+        info.addTensorInfo(NNStreamer.TensorType.UINT8, new int[]{10});
+
+        try {
+            TensorsData.map(info, new File("invalid_path"), 0, true);
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
 }
@@ -129,6 +129,87 @@ public class APITestTensorsInfo {
         }
     }
 
+    @Test
+    public void testGetStrides() {
+        try {
+            testAddInfo();
+
+            /* index 2: 3:3:3 float32 */
+            assertArrayEquals(new int[]{1,3,9}, mInfo.getTensorStrides(2));
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testFreeze() {
+        try {
+            testAddInfo();
+
+            TensorsInfo frozen = mInfo.freeze();
+
+            assertTrue(frozen.isFrozen());
+            assertFalse(mInfo.isFrozen());
+            assertSame(frozen, frozen.freeze());
+
+            /* precomputed values */
+            assertEquals(108, frozen.getTensorSize(2));
+            assertEquals(27, frozen.getTensorElementCount(2));
+            assertArrayEquals(new int[]{1,3,9}, frozen.getTensorStrides(2));
+
+            /* tensor offsets: 0, 64, 128 */
+            assertEquals(64, frozen.getTensorOffset(1));
+            assertEquals(128, frozen.getTensorOffset(2));
+            assertEquals(128, mInfo.getTensorOffset(2));
+
+            /* compare values */
+            assertEquals(mInfo, frozen);
+            assertEquals(mInfo.hashCode(), frozen.hashCode());
+
+            TensorsInfo cloned = frozen.clone();
+
+            assertFalse(cloned.isFrozen());
+            cloned.setTensorType(0, NNStreamer.TensorType.UINT8);
+            assertNotEquals(cloned, frozen);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testFreezeCached() {
+        try {
+            testAddInfo();
+
+            /* the frozen instance is reused until the information is changed */
+            TensorsInfo frozen = mInfo.freeze();
+            assertSame(frozen, mInfo.freeze());
+
+            mInfo.setTensorType(0, NNStreamer.TensorType.UINT8);
+
+            TensorsInfo changed = mInfo.freeze();
+            assertNotSame(frozen, changed);
+            assertEquals(NNStreamer.TensorType.UINT8, changed.getTensorType(0));
+            assertNotEquals(NNStreamer.TensorType.UINT8, frozen.getTensorType(0));
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testChangeFrozenInfo_n() {
+        try {
+            testAddInfo();
+
+            TensorsInfo frozen = mInfo.freeze();
+
+            frozen.setTensorDimension(0, new int[]{2});
+            fail();
+        } catch (Exception e) {
+            /* expected */
+        }
+    }
+
     @Test
     public void testAllocate() {
         try {
@@ -0,0 +1,336 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/*
+ * NNStreamer Android API
+ * Copyright (C) 2026 Samsung Electronics Co., Ltd.
+ */
+
+package org.nnsuite.nnstreamer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Provides interfaces to configure the pool of direct byte buffers used for tensor data.<br>
+ * <br>
+ * {@link TensorsData#allocate(TensorsInfo)} and {@link TensorsData#allocateByteBuffer(int)} draw the buffers from this pool,
+ * and {@link TensorsData#close()} returns the buffers allocated by the instance to the pool.
+ * Buffers are grouped into power-of-two size classes, and the capacity of a pooled buffer is rounded up to the size of its class,
+ * so a buffer is reused for any requested size in the same class.<br>
+ * <br>
+ * Note that the buffers of a {@link TensorsData} instance may be reused after closing it,
+ * so an application should not access them after calling {@link TensorsData#close()}.
+ */
+public final class BufferPool {
+    /**
+     * The default maximum number of pooled buffers in each size class.
+     */
+    public static final int DEFAULT_MAX_BUFFERS_PER_CLASS = 16;
+
+    /**
+     * The default maximum byte size of a buffer to be pooled.
+     */
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The default maximum total byte size of pooled buffers.
+     */
+    public static final long DEFAULT_MAX_POOLED_BYTES = 64L * 1024 * 1024;
+
+    private static final int SIZE_CLASS_COUNT = 32;
+    private static final byte[] ZERO_BYTES = new byte[4096];
+
+    private static final Object sLock = new Object();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ArrayDeque<ByteBuffer>[] sClasses = new ArrayDeque[SIZE_CLASS_COUNT];
+
+    private static int sMaxBuffersPerClass = DEFAULT_MAX_BUFFERS_PER_CLASS;
+    private static int sMaxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+    private static long sMaxPooledBytes = DEFAULT_MAX_POOLED_BYTES;
+    private static long sPooledBytes = 0;
+    private static long sHitCount = 0;
+    private static long sMissCount = 0;
+
+    /**
+     * Sets the maximum number of pooled buffers in each size class.
+     *
+     * @param count The maximum number of buffers, 0 to disable the pool
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public static void setMaxBuffersPerClass(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Given count is invalid");
+        }
+
+        synchronized (sLock) {
+            sMaxBuffersPerClass = count;
+            trim();
+        }
+    }
+
+    /**
+     * Gets the maximum number of pooled buffers in each size class.
+     *
+     * @return The maximum number of buffers
+     */
+    public static int getMaxBuffersPerClass() {
+        synchronized (sLock) {
+            return sMaxBuffersPerClass;
+        }
+    }
+
+    /**
+     * Sets the maximum byte size of a buffer to be pooled.
+     * The buffer larger than this size is always newly allocated and never pooled.
+     *
+     * @param size The maximum byte size of a buffer
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public static void setMaxBufferSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Given size is invalid");
+        }
+
+        synchronized (sLock) {
+            sMaxBufferSize = size;
+            trim();
+        }
+    }
+
+    /**
+     * Gets the maximum byte size of a buffer to be pooled.
+     *
+     * @return The maximum byte size of a buffer
+     */
+    public static int getMaxBufferSize() {
+        synchronized (sLock) {
+            return sMaxBufferSize;
+        }
+    }
+
+    /**
+     * Sets the maximum total byte size of pooled buffers.
+     *
+     * @param bytes The maximum total byte size, 0 to disable the pool
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public static void setMaxPooledBytes(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Given size is invalid");
+        }
+
+        synchronized (sLock) {
+            sMaxPooledBytes = bytes;
+            trim();
+        }
+    }
+
+    /**
+     * Gets the maximum total byte size of pooled buffers.
+     *
+     * @return The maximum total byte size
+     */
+    public static long getMaxPooledBytes() {
+        synchronized (sLock) {
+            return sMaxPooledBytes;
+        }
+    }
+
+    /**
+     * Gets the total byte size of the buffers currently kept in the pool.
+     *
+     * @return The total byte size of pooled buffers
+     */
+    public static long getPooledBytes() {
+        synchronized (sLock) {
+            return sPooledBytes;
+        }
+    }
+
+    /**
+     * Gets the number of allocations served by a pooled buffer.
+     *
+     * @return The hit count
+     */
+    public static long getHitCount() {
+        synchronized (sLock) {
+            return sHitCount;
+        }
+    }
+
+    /**
+     * Gets the number of allocations which required a new direct buffer.
+     *
+     * @return The miss count
+     */
+    public static long getMissCount() {
+        synchronized (sLock) {
+            return sMissCount;
+        }
+    }
+
+    /**
+     * Resets the hit and miss counters.
+     */
+    public static void resetCounters() {
+        synchronized (sLock) {
+            sHitCount = 0;
+            sMissCount = 0;
+        }
+    }
+
+    /**
+     * Releases all buffers in the pool.
+     */
+    public static void clear() {
+        synchronized (sLock) {
+            for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+                if (sClasses[i] != null) {
+                    sClasses[i].clear();
+                }
+            }
+
+            sPooledBytes = 0;
+        }
+    }
+
+    /**
+     * Internal method to get a direct byte buffer with the native byte order from the pool.
+     * The capacity of the buffer may be larger than given size, the limit of the buffer is set to given size.
+     * If clear is true, the contents of the buffer are cleared.
+     */
+    static ByteBuffer acquire(int size, boolean clear) {
+        ByteBuffer buffer = null;
+        int index = getSizeClass(size);
+
+        synchronized (sLock) {
+            ArrayDeque<ByteBuffer> pooled = sClasses[index];
+
+            if (pooled != null) {
+                Iterator<ByteBuffer> it = pooled.iterator();
+
+                while (it.hasNext()) {
+                    ByteBuffer item = it.next();
+
+                    if (item.capacity() >= size) {
+                        it.remove();
+                        sPooledBytes -= item.capacity();
+                        buffer = item;
+                        break;
+                    }
+                }
+            }
+
+            if (buffer != null) {
+                sHitCount++;
+            } else {
+                sMissCount++;
+            }
+        }
+
+        if (buffer == null) {
+            /* allocate the size of class to reuse the buffer for other sizes, the buffer larger than the limit is not pooled */
+            int capacity = (size > 0 && size <= getMaxBufferSize() && index < Integer.SIZE - 1) ? (1 << index) : size;
+
+            buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        } else if (clear) {
+            clearBuffer(buffer, size);
+        }
+
+        buffer.limit(size);
+        return buffer;
+    }
+
+    /**
+     * Internal method to return a direct byte buffer to the pool.
+     * The buffer is dropped (and released by GC) if the pool is full.
+     */
+    static void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || buffer.isReadOnly()) {
+            return;
+        }
+
+        int size = buffer.capacity();
+
+        if (size == 0) {
+            return;
+        }
+
+        synchronized (sLock) {
+            if (size > sMaxBufferSize || sPooledBytes + size > sMaxPooledBytes) {
+                return;
+            }
+
+            int index = getSizeClass(size);
+            ArrayDeque<ByteBuffer> pooled = sClasses[index];
+
+            if (pooled == null) {
+                pooled = sClasses[index] = new ArrayDeque<>();
+            }
+
+            if (pooled.size() >= sMaxBuffersPerClass) {
+                return;
+            }
+
+            buffer.clear();
+            buffer.order(ByteOrder.nativeOrder());
+            pooled.push(buffer);
+            sPooledBytes += size;
+        }
+    }
+
+    /**
+     * Internal method to get the index of size class (ceiling of log2).
+     */
+    private static int getSizeClass(int size) {
+        return (size <= 1) ? 0 : (32 - Integer.numberOfLeadingZeros(size - 1));
+    }
+
+    /**
+     * Internal method to fill the buffer with zero up to given size.
+     */
+    private static void clearBuffer(ByteBuffer buffer, int size) {
+        buffer.clear();
+        buffer.limit(size);
+
+        while (buffer.hasRemaining()) {
+            buffer.put(ZERO_BYTES, 0, Math.min(ZERO_BYTES.length, buffer.remaining()));
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Internal method to drop the pooled buffers exceeding the limits.
+     */
+    private static void trim() {
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            ArrayDeque<ByteBuffer> pooled = sClasses[i];
+
+            if (pooled == null) {
+                continue;
+            }
+
+            Iterator<ByteBuffer> it = pooled.iterator();
+
+            while (it.hasNext()) {
+                ByteBuffer item = it.next();
+
+                if (item.capacity() > sMaxBufferSize || pooled.size() > sMaxBuffersPerClass ||
+                        sPooledBytes > sMaxPooledBytes) {
+                    it.remove();
+                    sPooledBytes -= item.capacity();
+                }
+            }
+        }
+    }
+
+    /**
+     * Private constructor to prevent the instantiation.
+     */
+    private BufferPool() {}
+}
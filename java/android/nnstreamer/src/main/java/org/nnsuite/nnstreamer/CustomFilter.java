@@ -6,20 +6,29 @@
 
 package org.nnsuite.nnstreamer;
 
+import java.util.Arrays;
+
 /**
  * Provides interfaces to create a custom-filter in the pipeline.<br>
  * <br>
  * To register a new custom-filter, an application should call
  * {@link #create(String, TensorsInfo, TensorsInfo, Callback)}
- * before constructing the pipeline.
+ * or {@link #createInPlace(String, TensorsInfo, TensorsInfo, InPlaceCallback)}
+ * before constructing the pipeline.<br>
+ * <br>
+ * The custom-filter writes the output into the buffer allocated with the output tensors information,
+ * so the output tensors information should be static. {@link NNStreamer.TensorFormat#FLEXIBLE} output is not supported.
  */
 public final class CustomFilter implements AutoCloseable {
     private long mHandle = 0;
     private String mName = null;
     private Callback mCallback = null;
+    private InPlaceCallback mInPlaceCallback = null;
 
-    private native long nativeInitialize(String name, TensorsInfo in, TensorsInfo out);
+    private native long nativeInitialize(String name, TensorsInfo in, TensorsInfo out, boolean inPlace);
     private native void nativeDestroy(long handle);
+    private native long[] nativeGetStatistics(long handle);
+    private native void nativeResetStatistics(long handle);
 
     /**
      * Interface definition for a callback to be invoked while processing the pipeline.
@@ -40,6 +49,31 @@ public final class CustomFilter implements AutoCloseable {
         TensorsData invoke(TensorsData in);
     }
 
+    /**
+     * Interface definition for a callback to be invoked while processing the pipeline,
+     * which writes the result into the output buffer of the filter.
+     *
+     * @see #createInPlace(String, TensorsInfo, TensorsInfo, InPlaceCallback)
+     */
+    public interface InPlaceCallback {
+        /**
+         * Called synchronously while processing the pipeline.
+         *
+         * The input and output data directly wrap the buffers of the filter in the pipeline,
+         * so the callback should write the result into the output data, without allocating new data.
+         * The buffers are valid only while the callback is running,
+         * do not keep the data or the byte buffers of the data after returning from the callback.
+         * The buffers of the input data are read-only, because the input buffer may be shared with other elements.
+         * Note that, if it is unnecessary to execute the input data, return false to drop the buffer.
+         *
+         * @param in  The input data (a single frame, tensor/tensors)
+         * @param out The output data to be filled, allocated with the output tensors information
+         *
+         * @return True to pass the output data, false to drop the buffer
+         */
+        boolean invoke(TensorsData in, TensorsData out);
+    }
+
     /**
      * Creates new custom-filter with input and output tensors information.
      *
@@ -58,7 +92,73 @@ public final class CustomFilter implements AutoCloseable {
      * @throws IllegalStateException if failed to initialize custom-filter
      */
     public static CustomFilter create(String name, TensorsInfo in, TensorsInfo out, Callback callback) {
-        return new CustomFilter(name, in, out, callback);
+        if (callback == null) {
+            throw new IllegalArgumentException("Given callback is null");
+        }
+
+        return new CustomFilter(name, in, out, callback, null);
+    }
+
+    /**
+     * Creates new custom-filter which writes the result into the output buffer of the filter.
+     *
+     * Unlike {@link #create(String, TensorsInfo, TensorsInfo, Callback)}, the callback receives the data
+     * which wraps the input and output buffers in the pipeline, so the filter does not allocate and copy the data for each frame.
+     * Note that if given name is duplicated in the pipeline or same name already exists,
+     * the registration will be failed and throw an exception.
+     *
+     * @param name     The name of custom-filter
+     * @param in       The input tensors information
+     * @param out      The output tensors information
+     * @param callback The function to be called while processing the pipeline
+     *
+     * @return {@link CustomFilter} instance
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to initialize custom-filter
+     */
+    public static CustomFilter createInPlace(String name, TensorsInfo in, TensorsInfo out, InPlaceCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("Given callback is null");
+        }
+
+        return new CustomFilter(name, in, out, null, callback);
+    }
+
+    /**
+     * Creates new custom-filter which runs the callbacks in order in a single invocation of the filter.
+     *
+     * The output of each callback is passed to the next callback in Java, and the output of the last callback is the output of the filter,
+     * so the stages do not cross the native layer and do not convert the data between the stages.
+     * If a callback returns null, the following callbacks are not called and the buffer is dropped.
+     * The input data of the filter, and the intermediate data created while running the previous callback,
+     * are closed after the next callback returns, and their buffers are reused for the next frame.
+     * So a callback should not keep its input data, and should not return the data which refers to the buffers of its input data,
+     * except returning the input data itself. The data created before running a callback (e.g., a constant tensor
+     * reused for every frame) is not closed, and the output of the last callback is not closed by the filter.
+     *
+     * @param name      The name of custom-filter
+     * @param in        The input tensors information of the first callback
+     * @param out       The output tensors information of the last callback
+     * @param callbacks The functions to be called in order while processing the pipeline
+     *
+     * @return {@link CustomFilter} instance
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to initialize custom-filter
+     */
+    public static CustomFilter createChain(String name, TensorsInfo in, TensorsInfo out, Callback... callbacks) {
+        if (callbacks == null || callbacks.length == 0) {
+            throw new IllegalArgumentException("Given callbacks are invalid");
+        }
+
+        for (Callback callback : callbacks) {
+            if (callback == null) {
+                throw new IllegalArgumentException("Given callbacks have null callback");
+            }
+        }
+
+        return new CustomFilter(name, in, out, new ChainCallback(callbacks.clone()), null);
     }
 
     /**
@@ -70,6 +170,46 @@ public final class CustomFilter implements AutoCloseable {
         return mName;
     }
 
+    /**
+     * Gets the execution statistics of custom-filter, since the filter is created or the statistics is reset.
+     *
+     * @return The statistics of custom-filter
+     *
+     * @throws IllegalStateException if custom-filter is closed
+     */
+    public Statistics getStatistics() {
+        checkFilterHandle();
+
+        long[] values = nativeGetStatistics(mHandle);
+        if (values == null) {
+            throw new IllegalStateException("Failed to get the statistics of custom-filter " + mName);
+        }
+
+        return new Statistics(values);
+    }
+
+    /**
+     * Resets the execution statistics of custom-filter.
+     *
+     * @throws IllegalStateException if custom-filter is closed
+     */
+    public void resetStatistics() {
+        checkFilterHandle();
+
+        nativeResetStatistics(mHandle);
+    }
+
+    /**
+     * Internal method to check native handle.
+     *
+     * @throws IllegalStateException if custom-filter is closed
+     */
+    private void checkFilterHandle() {
+        if (mHandle == 0) {
+            throw new IllegalStateException("The custom-filter is closed");
+        }
+    }
+
     /**
      * Internal constructor to create and register a custom-filter.
      *
@@ -77,11 +217,12 @@ public final class CustomFilter implements AutoCloseable {
      * @param in       The input tensors information
      * @param out      The output tensors information
      * @param callback The function to be called while processing the pipeline
+     * @param inPlaceCallback The function to write the result into the output buffer, if callback is null
      *
      * @throws IllegalArgumentException if given param is invalid
      * @throws IllegalStateException if failed to initialize custom-filter
      */
-    private CustomFilter(String name, TensorsInfo in, TensorsInfo out, Callback callback) {
+    private CustomFilter(String name, TensorsInfo in, TensorsInfo out, Callback callback, InPlaceCallback inPlaceCallback) {
         if (name == null) {
             throw new IllegalArgumentException("Given name is null");
         }
@@ -90,17 +231,19 @@ public final class CustomFilter implements AutoCloseable {
             throw new IllegalArgumentException("Given info is null");
         }
 
-        if (callback == null) {
-            throw new IllegalArgumentException("Given callback is null");
+        if (out.getFormat() == NNStreamer.TensorFormat.FLEXIBLE) {
+            /* custom-easy cannot set the dimension of each output frame */
+            throw new IllegalArgumentException("Given output info is flexible, custom-filter supports static output only");
         }
 
-        mHandle = nativeInitialize(name, in, out);
+        mHandle = nativeInitialize(name, in, out, (inPlaceCallback != null));
         if (mHandle == 0) {
             throw new IllegalStateException("Failed to initialize custom-filter " + name);
         }
 
         mName = name;
         mCallback = callback;
+        mInPlaceCallback = inPlaceCallback;
     }
 
     /**
@@ -116,6 +259,25 @@ public final class CustomFilter implements AutoCloseable {
         return out;
     }
 
+    /**
+     * Internal method called from native while processing the pipeline, if the filter writes the result into the output buffer.
+     */
+    private boolean invokeInPlace(TensorsData in, TensorsData out) {
+        boolean passed = false;
+
+        try {
+            if (mInPlaceCallback != null) {
+                passed = mInPlaceCallback.invoke(in, out);
+            }
+        } finally {
+            /* the data wraps the buffers of the filter, close the data not to access the buffers after returning */
+            in.close();
+            out.close();
+        }
+
+        return passed;
+    }
+
     @Override
     protected void finalize() throws Throwable {
         try {
@@ -133,6 +295,185 @@ public final class CustomFilter implements AutoCloseable {
         }
     }
 
+    /**
+     * Provides the execution statistics of a custom-filter.<br>
+     * <br>
+     * The execution time of an invocation is divided into the conversion time and the callback time.
+     * The conversion time is the time to convert the buffers of the filter to the data objects and to copy the output data into the buffer,
+     * and the callback time is the time to call the callback from native, including the transition between native and Java.
+     * The time is measured in nanoseconds, and the histogram has the buckets of power-of-two ranges.
+     * The bucket 0 counts the time under 1 nanosecond, the bucket N counts the time from 2<sup>N-1</sup> to 2<sup>N</sup>-1 nanoseconds,
+     * and the last bucket counts all longer time (about 1 second or longer).
+     *
+     * @see #getStatistics()
+     */
+    public static final class Statistics {
+        /**
+         * The number of buckets in the histogram of execution time.
+         */
+        public static final int HISTOGRAM_SIZE = 32;
+
+        private final long mInvokeCount;
+        private final long mDroppedCount;
+        private final long mExceptionCount;
+        private final long mTotalConversionTime;
+        private final long mMaxConversionTime;
+        private final long mTotalCallbackTime;
+        private final long mMaxCallbackTime;
+        private final long[] mConversionHistogram;
+        private final long[] mCallbackHistogram;
+
+        private Statistics(long[] values) {
+            /* the values from native: counts, total and max time, and the buckets of conversion and callback time */
+            mInvokeCount = values[0];
+            mDroppedCount = values[1];
+            mExceptionCount = values[2];
+            mTotalConversionTime = values[3];
+            mMaxConversionTime = values[4];
+            mTotalCallbackTime = values[5];
+            mMaxCallbackTime = values[6];
+            mConversionHistogram = Arrays.copyOfRange(values, 7, 7 + HISTOGRAM_SIZE);
+            mCallbackHistogram = Arrays.copyOfRange(values, 7 + HISTOGRAM_SIZE, 7 + HISTOGRAM_SIZE * 2);
+        }
+
+        /**
+         * Gets the number of frames which the filter received.
+         *
+         * @return The number of invocations
+         */
+        public long getInvokeCount() {
+            return mInvokeCount;
+        }
+
+        /**
+         * Gets the number of frames dropped by the callback, which returned null or false.
+         *
+         * @return The number of dropped frames
+         */
+        public long getDroppedCount() {
+            return mDroppedCount;
+        }
+
+        /**
+         * Gets the number of exceptions thrown from the callback.
+         *
+         * @return The number of exceptions
+         */
+        public long getExceptionCount() {
+            return mExceptionCount;
+        }
+
+        /**
+         * Gets the average conversion time of the frames which the callback was called with.
+         *
+         * @return The average conversion time in nanoseconds
+         */
+        public long getAverageConversionTime() {
+            long count = getCount(mConversionHistogram);
+
+            return (count > 0) ? (mTotalConversionTime / count) : 0;
+        }
+
+        /**
+         * Gets the maximum conversion time.
+         *
+         * @return The maximum conversion time in nanoseconds
+         */
+        public long getMaxConversionTime() {
+            return mMaxConversionTime;
+        }
+
+        /**
+         * Gets the histogram of conversion time.
+         *
+         * @return The number of frames in each bucket, the length is {@link #HISTOGRAM_SIZE}
+         */
+        public long[] getConversionTimeHistogram() {
+            return mConversionHistogram.clone();
+        }
+
+        /**
+         * Gets the average callback time.
+         *
+         * @return The average callback time in nanoseconds
+         */
+        public long getAverageCallbackTime() {
+            long count = getCount(mCallbackHistogram);
+
+            return (count > 0) ? (mTotalCallbackTime / count) : 0;
+        }
+
+        /**
+         * Gets the maximum callback time.
+         *
+         * @return The maximum callback time in nanoseconds
+         */
+        public long getMaxCallbackTime() {
+            return mMaxCallbackTime;
+        }
+
+        /**
+         * Gets the histogram of callback time.
+         *
+         * @return The number of frames in each bucket, the length is {@link #HISTOGRAM_SIZE}
+         */
+        public long[] getCallbackTimeHistogram() {
+            return mCallbackHistogram.clone();
+        }
+
+        private static long getCount(long[] histogram) {
+            long count = 0;
+
+            for (long value : histogram) {
+                count += value;
+            }
+
+            return count;
+        }
+    }
+
+    /**
+     * Internal class to run the callbacks in order, the intermediate data is closed to reuse its buffers.
+     * Only the data owned by the chain (the input of the filter and the data created in the previous callback) is closed.
+     */
+    private static final class ChainCallback implements Callback {
+        private final Callback[] callbacks;
+
+        private ChainCallback(Callback[] callbacks) {
+            this.callbacks = callbacks;
+        }
+
+        @Override
+        public TensorsData invoke(TensorsData in) {
+            TensorsData data = in;
+            boolean owned = true;
+
+            for (Callback callback : callbacks) {
+                long serial = TensorsData.getLastSerial();
+                TensorsData result = callback.invoke(data);
+
+                if (owned && result != data) {
+                    /* return the buffers to the pool, the next frame or stage allocates the buffers from the pool */
+                    data.close();
+                }
+
+                if (result == null) {
+                    /* drop the buffer */
+                    return null;
+                }
+
+                /* the data created before running the callback may be reused by an application */
+                if (result != data) {
+                    owned = result.isCreatedAfter(serial);
+                }
+
+                data = result;
+            }
+
+            return data;
+        }
+    }
+
     /**
      * Private constructor to prevent the instantiation.
      */
@@ -6,6 +6,8 @@
 
 package org.nnsuite.nnstreamer;
 
+import java.util.List;
+
 /**
  * Provides interfaces to construct and process a machine-learning service.<br>
  * <br>
@@ -24,6 +26,7 @@ public final class MLService implements AutoCloseable {
     private native boolean nativeStart(long handle);
     private native boolean nativeStop(long handle);
     private native boolean nativeInputData(long handle, String name, TensorsData data);
+    private native boolean nativeInputDataList(long handle, String name, TensorsData[] data);
     private native TensorsInfo nativeGetInputInfo(long handle, String name);
     private native TensorsInfo nativeGetOutputInfo(long handle, String name);
     private native boolean nativeSetInfo(long handle, String name, String value);
@@ -63,6 +66,14 @@ public final class MLService implements AutoCloseable {
         void onNewDataReceived(String name, TensorsData data);
     }
 
+    /**
+     * Interface definition for a listener which borrows the data only while the callback is running.
+     * The data is closed after the callback is finished, and the buffers are returned to {@link BufferPool} and reused for the next data.
+     * The application must not keep the data or its buffers after the callback returns.
+     */
+    public interface BorrowedEventListener extends EventListener {
+    }
+
     /**
      * Constructs a new {@link MLService} instance with given configuration.
      *
@@ -137,6 +148,38 @@ public final class MLService implements AutoCloseable {
         }
     }
 
+    /**
+     * Adds the list of input data to input node to be processed from the machine-learning service.
+     * The data are requested in order with a single native call.
+     * If failed to request a data, the following data in the list are not requested.
+     *
+     * @param name The name of input node defined in the configuration.
+     *             Note that this is mandatory if the machine-learning service is constructed from pipeline configuration.
+     * @param dataList The list of input data (each element is a single frame, tensor/tensors).
+     *
+     * @throws IllegalArgumentException if given param is invalid.
+     * @throws IllegalStateException if failed to push data to input node.
+     */
+    public void inputData(String name, List<TensorsData> dataList) {
+        checkNativeHandle();
+
+        if (dataList == null || dataList.isEmpty()) {
+            throw new IllegalArgumentException("Given data list is invalid.");
+        }
+
+        TensorsData[] data = dataList.toArray(new TensorsData[0]);
+
+        for (TensorsData d : data) {
+            if (d == null) {
+                throw new IllegalArgumentException("Given data list has null data.");
+            }
+        }
+
+        if (!nativeInputDataList(mHandle, name, data)) {
+            throw new IllegalStateException("Failed to push data to input node.");
+        }
+    }
+
     /**
      * Gets the information (tensor dimension, type, name and so on) of input node.
      *
@@ -236,11 +279,19 @@ public final class MLService implements AutoCloseable {
      * Internal method called from native when a new data is available.
      */
     private void newDataReceived(String name, TensorsData data) {
+        boolean borrowed = false;
+
         synchronized(this) {
             if (mEventListener != null) {
                 mEventListener.onNewDataReceived(name, data);
+                borrowed = (mEventListener instanceof BorrowedEventListener);
             }
         }
+
+        if (borrowed) {
+            /* return the buffers to the pool */
+            data.close();
+        }
     }
 
     /**
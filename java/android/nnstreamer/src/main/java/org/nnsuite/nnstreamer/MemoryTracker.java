@@ -0,0 +1,224 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/*
+ * NNStreamer Android API
+ * Copyright (C) 2026 Samsung Electronics Co., Ltd.
+ */
+
+package org.nnsuite.nnstreamer;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Provides interfaces to get the byte size of direct buffers owned by {@link TensorsData} instances.<br>
+ * <br>
+ * The buffers allocated by {@link TensorsData} are counted as live bytes until the tensors data is closed,
+ * or released by GC without closing it. The buffers given by an application are not counted.
+ * Live bytes are grouped by the creator of the tensors data.
+ */
+public final class MemoryTracker {
+    /**
+     * The enumeration for the creator of tensors data.
+     */
+    public enum Creator {
+        /** Tensors data allocated by an application */ APPLICATION,
+        /** Output data of {@link SingleShot} */ SINGLE_SHOT,
+        /** Data received from the sink node of a pipeline */ PIPELINE_SINK,
+        /** Input data of a custom-filter */ CUSTOM_FILTER,
+        /** Data received from ML service */ ML_SERVICE
+    }
+
+    private static final int CREATOR_COUNT = Creator.values().length;
+    private static final AtomicLongArray sLiveBytes = new AtomicLongArray(CREATOR_COUNT);
+    private static final AtomicLongArray sPeakBytes = new AtomicLongArray(CREATOR_COUNT);
+    private static final ReferenceQueue<Object> sReleased = new ReferenceQueue<>();
+    private static final Set<Allocation> sAllocations =
+            Collections.newSetFromMap(new ConcurrentHashMap<Allocation, Boolean>());
+
+    /**
+     * Gets the byte size of live buffers allocated by the tensors data of given creator.
+     *
+     * @param creator The creator of tensors data
+     *
+     * @return The byte size of live buffers
+     *
+     * @throws IllegalArgumentException if given param is null
+     */
+    public static long getLiveBytes(Creator creator) {
+        if (creator == null) {
+            throw new IllegalArgumentException("Given creator is null");
+        }
+
+        expunge();
+        return sLiveBytes.get(creator.ordinal());
+    }
+
+    /**
+     * Gets the total byte size of live buffers allocated by the tensors data.
+     *
+     * @return The byte size of live buffers
+     */
+    public static long getLiveBytes() {
+        long total = 0;
+
+        expunge();
+
+        for (int i = 0; i < CREATOR_COUNT; i++) {
+            total += sLiveBytes.get(i);
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets the maximum byte size of live buffers allocated by the tensors data of given creator,
+     * since the peak was reset.
+     *
+     * @param creator The creator of tensors data
+     *
+     * @return The maximum byte size of live buffers
+     *
+     * @throws IllegalArgumentException if given param is null
+     */
+    public static long getPeakBytes(Creator creator) {
+        if (creator == null) {
+            throw new IllegalArgumentException("Given creator is null");
+        }
+
+        return sPeakBytes.get(creator.ordinal());
+    }
+
+    /**
+     * Resets the maximum byte size of live buffers to the current size.
+     */
+    public static void resetPeakBytes() {
+        for (int i = 0; i < CREATOR_COUNT; i++) {
+            sPeakBytes.set(i, sLiveBytes.get(i));
+        }
+    }
+
+    /**
+     * Internal method to start tracking the buffers owned by given tensors data.
+     * The tracked bytes are subtracted when the owner is released by GC without closing it.
+     */
+    static Allocation register(Object owner, Creator creator) {
+        Allocation allocation = new Allocation(owner, creator);
+
+        expunge();
+        sAllocations.add(allocation);
+        return allocation;
+    }
+
+    /**
+     * Internal method to stop tracking the owner, after all buffers of the owner are released.
+     */
+    static void unregister(Allocation allocation) {
+        sAllocations.remove(allocation);
+        allocation.clear();
+    }
+
+    /**
+     * Internal method to subtract the byte size of the buffers owned by the tensors data released by GC.
+     */
+    private static void expunge() {
+        Reference<?> ref;
+
+        while ((ref = sReleased.poll()) != null) {
+            Allocation allocation = (Allocation) ref;
+
+            if (sAllocations.remove(allocation)) {
+                untrack(allocation.creator, allocation.bytes);
+            }
+        }
+    }
+
+    /**
+     * Internal method to add the byte size of allocated buffer.
+     */
+    static void track(Creator creator, long bytes) {
+        int index = creator.ordinal();
+        long live = sLiveBytes.addAndGet(index, bytes);
+        long peak;
+
+        while (live > (peak = sPeakBytes.get(index))) {
+            if (sPeakBytes.compareAndSet(index, peak, live)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Internal method to subtract the byte size of released buffer.
+     */
+    static void untrack(Creator creator, long bytes) {
+        sLiveBytes.addAndGet(creator.ordinal(), -bytes);
+    }
+
+    /**
+     * Internal method to get the creator from the pipeline type in native.
+     */
+    static Creator convertCreator(int value) {
+        Creator creator = Creator.APPLICATION;
+
+        switch (value) {
+            case 0:
+                creator = Creator.PIPELINE_SINK;
+                break;
+            case 1:
+                creator = Creator.SINGLE_SHOT;
+                break;
+            case 2:
+                creator = Creator.CUSTOM_FILTER;
+                break;
+            case 3:
+                creator = Creator.ML_SERVICE;
+                break;
+            default:
+                /* unknown pipeline type */
+                break;
+        }
+
+        return creator;
+    }
+
+    /**
+     * Internal class for the byte size of the buffers owned by a tensors data.
+     * Only the tensors data which owns the buffers is registered, instead of finalizing all instances.
+     */
+    static final class Allocation extends PhantomReference<Object> {
+        private final Creator creator;
+        private volatile long bytes = 0;
+
+        private Allocation(Object owner, Creator creator) {
+            super(owner, sReleased);
+            this.creator = creator;
+        }
+
+        /**
+         * Adds the byte size of the buffer allocated by the owner.
+         */
+        void add(long size) {
+            bytes += size;
+            track(creator, size);
+        }
+
+        /**
+         * Subtracts the byte size of the buffer released by the owner, and returns the remaining byte size.
+         */
+        long subtract(long size) {
+            bytes -= size;
+            untrack(creator, size);
+            return bytes;
+        }
+    }
+
+    /**
+     * Private constructor to prevent the instantiation.
+     */
+    private MemoryTracker() {}
+}
@@ -6,8 +6,25 @@
 
 package org.nnsuite.nnstreamer;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Provides interfaces to create and execute stream pipelines with neural networks.<br>
@@ -21,8 +38,15 @@ import java.util.HashMap;
  */
 public final class Pipeline implements AutoCloseable {
     private long mHandle = 0;
-    private HashMap<String, ArrayList<NewDataCallback>> mSinkCallbacks = new HashMap<>();
-    private StateChangeCallback mStateCallback = null;
+    private final ConcurrentHashMap<String, SinkCallbacks> mSinkCallbacks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SinkQueue> mSinkQueues = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> mSinkLatency = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SinkRequests> mSinkRequests = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Source> mSources = new ConcurrentHashMap<>();
+    private final AtomicLong mNextSequenceId = new AtomicLong(0);
+    private ScheduledThreadPoolExecutor mRequestTimer = null;
+    private final Object mSinkLock = new Object();
+    private volatile StateChangeCallback mStateCallback = null;
 
     private static native boolean nativeCheckElementAvailability(String element);
     private native long nativeConstruct(String description, boolean addStateCb);
@@ -32,10 +56,21 @@ public final class Pipeline implements AutoCloseable {
     private native boolean nativeFlush(long handle, boolean start);
     private native int nativeGetState(long handle);
     private native boolean nativeInputData(long handle, String name, TensorsData data);
+    private native boolean nativeInputDataList(long handle, String name, TensorsData[] data, long timestamp, long duration);
     private native String[] nativeGetSwitchPads(long handle, String name);
     private native boolean nativeSelectSwitchPad(long handle, String name, String pad);
     private native boolean nativeControlValve(long handle, String name, boolean open);
-    private native boolean nativeAddSinkCallback(long handle, String name);
+    private native long nativeGetSourceHandle(long handle, String name);
+    private native boolean nativeSourceInputData(long handle, long source, TensorsData data);
+    private native boolean nativeSourceInputStampedData(long handle, long source, TensorsData data, long sequenceId, long timestamp);
+    private native int nativeSourceTryInputData(long handle, long source, TensorsData data);
+    private native long nativeSourceGetQueueBytes(long source, boolean capacity);
+    private native boolean nativeSourceTransferData(long handle, long source, TensorsData data, Object request);
+    private native long nativeGetSwitchHandle(long handle, String name);
+    private native boolean nativeSwitchSelect(long node, String pad);
+    private native long nativeGetValveHandle(long handle, String name);
+    private native boolean nativeValveSetOpen(long node, boolean open);
+    private native boolean nativeAddSinkCallback(long handle, String name, boolean zeroCopy);
     private native boolean nativeRemoveSinkCallback(long handle, String name);
     private native boolean nativeInitializeSurface(long handle, String name, Object surface);
     private native boolean nativeFinalizeSurface(long handle, String name);
@@ -51,7 +86,9 @@ public final class Pipeline implements AutoCloseable {
          *
          * If an application wants to accept data outputs of an NNStreamer stream, use this callback to get data from the stream.
          * Note that this is synchronously called and the buffer may be deallocated after the callback is finished.
+         * If the sink node has a queue, this is called in the delivery thread of the queue (see {@link #setSinkQueue(String, int, QueuePolicy)}).
          * Thus, if you need the data afterwards, copy the data to another buffer and return fast.
+         * If the callback is registered in zero-copy mode, the data wraps the native buffer in the pipeline.
          * Do not spend too much time in the callback. It is recommended to use very small tensors at sinks.
          *
          * @param data The output data (a single frame, tensor/tensors)
@@ -59,6 +96,19 @@ public final class Pipeline implements AutoCloseable {
         void onNewDataReceived(TensorsData data);
     }
 
+    /**
+     * Interface definition for a callback which borrows the data of a sink node only while the callback is running.
+     *
+     * If all callbacks of a sink node are this type, the data is closed after all callbacks are finished,
+     * and the buffers are returned to {@link BufferPool} and reused for the next data.
+     * The application must not keep the data or its buffers after the callback returns.
+     * Otherwise the application owns the data received with {@link NewDataCallback}, and the data is not closed by the pipeline.
+     *
+     * @see #registerSinkCallback(String, NewDataCallback)
+     */
+    public interface BorrowedDataCallback extends NewDataCallback {
+    }
+
     /**
      * Interface definition for a callback to be invoked when the pipeline state is changed.
      * This callback can be registered only when constructing the pipeline.
@@ -108,6 +158,29 @@ public final class Pipeline implements AutoCloseable {
         PLAYING
     }
 
+    /**
+     * The enumeration for the policy when the queue of a sink node is full.
+     *
+     * @see #setSinkQueue(String, int, QueuePolicy)
+     */
+    public enum QueuePolicy {
+        /** Drops the oldest data in the queue and queues new data */ DROP_OLDEST,
+        /** Drops new data */ DROP_NEWEST,
+        /** Blocks the streaming thread until the queue has a room for new data */ BLOCK,
+        /** Drops all data in the queue and queues new data, the queue size is ignored */ CONFLATE_LATEST
+    }
+
+    /**
+     * The enumeration for the status of pushing data without blocking.
+     *
+     * @see #tryInputData(String, TensorsData)
+     */
+    public enum InputStatus {
+        /** The data is pushed to the source node */ ACCEPTED,
+        /** The queue of the source node is full, the data is not pushed */ QUEUE_FULL,
+        /** The pipeline is not playing, the data is not pushed */ NOT_PLAYING
+    }
+
     /**
      * Creates a new {@link Pipeline} instance with the given pipeline description.
      *
@@ -256,6 +329,221 @@ public final class Pipeline implements AutoCloseable {
         }
     }
 
+    /**
+     * Adds the list of input data frames to source node.
+     * The frames are pushed in order with a single native call, to reduce the overhead of pushing each frame.
+     * If failed to push a frame, the following frames in the list are not pushed.
+     *
+     * @param name The name of source node
+     * @param dataList The list of input data (each element is a single frame, tensor/tensors)
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to push data to source node
+     *
+     * @see #inputData(String, TensorsData)
+     */
+    public void inputData(String name, List<TensorsData> dataList) {
+        inputDataList(name, dataList, -1, 0);
+    }
+
+    /**
+     * Adds the list of input data frames with contiguous timestamps to source node.
+     * The frame at index i has the timestamp (timestamp + duration * i), and all frames are pushed at once.
+     * This is available only if the source node has the static tensors information (e.g., the caps in the pipeline description).
+     *
+     * @param name The name of source node
+     * @param dataList The list of input data (each element is a single frame, tensor/tensors)
+     * @param timestamp The timestamp of the first frame in nanoseconds
+     * @param duration The duration of each frame in nanoseconds
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to push data to source node
+     *
+     * @see #inputData(String, List)
+     */
+    public void inputData(String name, List<TensorsData> dataList, long timestamp, long duration) {
+        if (timestamp < 0) {
+            throw new IllegalArgumentException("Given timestamp is invalid");
+        }
+
+        if (duration < 0) {
+            throw new IllegalArgumentException("Given duration is invalid");
+        }
+
+        inputDataList(name, dataList, timestamp, duration);
+    }
+
+    /**
+     * Adds an input data frame to source node if the source node can accept it immediately.
+     * Unlike {@link #inputData(String, TensorsData)}, this does not push the data
+     * when the pipeline is not playing or the queue of the source node is full,
+     * so that the application can throttle or drop the frames.
+     *
+     * @param name The name of source node
+     * @param data The input data (a single frame, tensor/tensors)
+     *
+     * @return The status of pushing data
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to push data to source node
+     *
+     * @see InputStatus
+     * @see #getSourceQueueLevel(String)
+     */
+    public InputStatus tryInputData(String name, TensorsData data) {
+        return getSource(name).tryPush(data);
+    }
+
+    /**
+     * Gets the byte size of the data queued in source node.
+     *
+     * @param name The name of source node
+     *
+     * @return The byte size of the queued data
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to get the queue level of source node
+     */
+    public long getSourceQueueLevel(String name) {
+        return getSource(name).getQueueLevel();
+    }
+
+    /**
+     * Gets the maximum byte size of the data to be queued in source node.
+     * When the queue is full, {@link #inputData(String, TensorsData)} may block or the data may be dropped,
+     * according to the properties of the source node. 0 means the queue is unlimited.
+     *
+     * @param name The name of source node
+     *
+     * @return The maximum byte size of the queue
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to get the queue capacity of source node
+     */
+    public long getSourceQueueCapacity(String name) {
+        return getSource(name).getQueueCapacity();
+    }
+
+    /**
+     * Adds an input data frame with the sequence ID and timestamp to source node.
+     * The stamp is carried in a buffer meta owned by this pipeline, so that the data received from a sink node has the same stamp
+     * (see {@link TensorsData#getSequenceId()} and {@link TensorsData#getTimestamp()}),
+     * and the pipeline measures the latency from pushing the frame to receiving it in each sink node.
+     * Note that the stamp is lost if an element in the pipeline creates new buffer without copying the buffer meta.
+     * This is available only if the source node has the static tensors information (e.g., the caps in the pipeline description).
+     *
+     * @param name The name of source node
+     * @param data The input data (a single frame, tensor/tensors)
+     *
+     * @return The sequence ID of the frame
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to push data to source node
+     *
+     * @see #getSinkLatency(String)
+     */
+    public long inputStampedData(String name, TensorsData data) {
+        return getSource(name).pushStamped(data);
+    }
+
+    /**
+     * Pushes an input data frame to source node, and gets the result of the frame from sink node.
+     * The frame is stamped with new sequence ID (see {@link #inputStampedData(String, TensorsData)}),
+     * and the returned future is completed with the copy of the data which has the same sequence ID in the sink node.
+     * Many requests can be in flight at once. The pipeline is expected to process the frames of a source node in order,
+     * so when the sink node receives the frame of a request, the pending requests pushed earlier to the same source node
+     * are failed as dropped frames. The requests from other source nodes are not affected, and the frames
+     * which are not stamped by a request (e.g., from other sources in the pipeline) are ignored.
+     * This is available only if the source node has the static tensors information (e.g., the caps in the pipeline description).
+     *
+     * @param srcName  The name of source node
+     * @param sinkName The name of sink node
+     * @param data     The input data (a single frame, tensor/tensors)
+     * @param timeout  The time to wait for the result in milliseconds, 0 means no timeout.
+     *                 The future is failed with {@link TimeoutException} after the timeout.
+     *
+     * @return The future to be completed with the result of the frame
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to push data to source node
+     */
+    public CompletableFuture<TensorsData> request(String srcName, String sinkName, TensorsData data, int timeout) {
+        checkPipelineHandle();
+
+        if (sinkName == null || sinkName.isEmpty()) {
+            throw new IllegalArgumentException("Given sink name is invalid");
+        }
+
+        if (data == null) {
+            throw new IllegalArgumentException("Given data is null");
+        }
+
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Given timeout is invalid");
+        }
+
+        Source source = getSource(srcName);
+        SinkRequests requests = getSinkRequests(sinkName);
+        PendingRequest request = new PendingRequest(source);
+        long sequenceId = mNextSequenceId.getAndIncrement();
+
+        requests.add(sequenceId, request);
+
+        /* the timer may be fired after the request is completed, then it does nothing */
+        if (timeout > 0) {
+            request.timer = scheduleTimeout(requests, sequenceId, timeout);
+        }
+
+        try {
+            source.pushStamped(data, sequenceId);
+        } catch (RuntimeException e) {
+            requests.fail(sequenceId, e);
+            throw e;
+        }
+
+        return request.future;
+    }
+
+    /**
+     * Pushes an input data frame to source node, and gets the result of the frame from sink node without timeout.
+     *
+     * @param srcName  The name of source node
+     * @param sinkName The name of sink node
+     * @param data     The input data (a single frame, tensor/tensors)
+     *
+     * @return The future to be completed with the result of the frame
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to push data to source node
+     *
+     * @see #request(String, String, TensorsData, int)
+     */
+    public CompletableFuture<TensorsData> request(String srcName, String sinkName, TensorsData data) {
+        return request(srcName, sinkName, data, 0);
+    }
+
+    /**
+     * Adds an input data frame to source node without copying the data.
+     * The pipeline takes the ownership of the buffers in the data, until the returned future is completed.
+     * The application should not change or close the data until then, and may reuse the data after the future is completed.
+     * Note that the future is completed in the thread which releases the buffers in the pipeline,
+     * so do not spend too much time in the dependent actions of the future.
+     * This is available only if the source node has the static tensors information (e.g., the caps in the pipeline description).
+     *
+     * @param name The name of source node
+     * @param data The tensors data to be pushed
+     *
+     * @return The future to be completed with the data when the pipeline releases the buffers
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to push data to source node
+     *
+     * @see #inputData(String, TensorsData)
+     */
+    public CompletableFuture<TensorsData> transferData(String name, TensorsData data) {
+        return getSource(name).transfer(data);
+    }
+
     /**
      * Gets the pad names of a switch.
      *
@@ -329,6 +617,108 @@ public final class Pipeline implements AutoCloseable {
         }
     }
 
+    /**
+     * Gets the handle of a source node. The native element is resolved once and the handle is kept in the pipeline,
+     * so that pushing data with the handle or the name does not need to find the element again.
+     *
+     * @param name The name of source node
+     *
+     * @return The handle of the source node
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to get the source node
+     */
+    public Source getSource(String name) {
+        checkPipelineHandle();
+
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        Source source = mSources.get(name);
+
+        if (source == null) {
+            long node = nativeGetSourceHandle(mHandle, name);
+            if (node == 0) {
+                throw new IllegalStateException("Failed to get the source node " + name);
+            }
+
+            Source added = mSources.putIfAbsent(name, new Source(name, node));
+            source = (added != null) ? added : mSources.get(name);
+        }
+
+        return source;
+    }
+
+    /**
+     * Gets the handle of a sink node.
+     *
+     * @param name The name of sink node
+     *
+     * @return The handle of the sink node
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public Sink getSink(String name) {
+        checkPipelineHandle();
+
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        return new Sink(name);
+    }
+
+    /**
+     * Gets the handle of a switch. The native element is resolved once.
+     *
+     * @param name The name of switch
+     *
+     * @return The handle of the switch
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to get the switch
+     */
+    public Switch getSwitch(String name) {
+        checkPipelineHandle();
+
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        long node = nativeGetSwitchHandle(mHandle, name);
+        if (node == 0) {
+            throw new IllegalStateException("Failed to get the switch " + name);
+        }
+
+        return new Switch(name, node);
+    }
+
+    /**
+     * Gets the handle of a valve. The native element is resolved once.
+     *
+     * @param name The name of valve
+     *
+     * @return The handle of the valve
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to get the valve
+     */
+    public Valve getValve(String name) {
+        checkPipelineHandle();
+
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        long node = nativeGetValveHandle(mHandle, name);
+        if (node == 0) {
+            throw new IllegalStateException("Failed to get the valve " + name);
+        }
+
+        return new Valve(name, node);
+    }
+
     /**
      * Registers new data callback to sink node.
      * The callback can be added in duplicate if an application tries to register multiple callbacks with same name.
@@ -340,6 +730,26 @@ public final class Pipeline implements AutoCloseable {
      * @throws IllegalStateException if failed to register the callback to sink node in the pipeline
      */
     public void registerSinkCallback(String name, NewDataCallback callback) {
+        registerSinkCallback(name, callback, false);
+    }
+
+    /**
+     * Registers new data callback to sink node.
+     * If zeroCopy is true, the sink node does not copy the output data, and the callback receives
+     * the data which directly wraps the native buffer in the pipeline.
+     * The native buffer is held until all callbacks of the sink node are finished,
+     * and then the data is closed regardless of the type of callback (see {@link BorrowedDataCallback}).
+     * Thus the application must not update the data (the buffers are read-only), and must not access the data and its buffers after the callback returns.
+     * All callbacks of the sink node should be registered in same mode.
+     *
+     * @param name     The name of sink node
+     * @param callback The callback for new data
+     * @param zeroCopy True to receive the native buffer without copying it
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to register the callback to sink node in the pipeline
+     */
+    public void registerSinkCallback(String name, NewDataCallback callback, boolean zeroCopy) {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Given name is invalid");
         }
@@ -348,19 +758,25 @@ public final class Pipeline implements AutoCloseable {
             throw new IllegalArgumentException("Given callback is null");
         }
 
-        synchronized(this) {
-            ArrayList<NewDataCallback> cbList = mSinkCallbacks.get(name);
+        synchronized(mSinkLock) {
+            SinkCallbacks cbList = mSinkCallbacks.get(name);
+
+            if (zeroCopy && mSinkQueues.containsKey(name)) {
+                throw new IllegalStateException("The sink node " + name + " delivers the data asynchronously");
+            }
 
             if (cbList != null) {
+                if (cbList.zeroCopy != zeroCopy) {
+                    throw new IllegalStateException("The sink callback of " + name + " is registered in other mode");
+                }
+
                 /* check the list already includes same callback */
                 if (!cbList.contains(callback)) {
-                    cbList.add(callback);
+                    mSinkCallbacks.put(name, cbList.add(callback));
                 }
             } else {
-                if (nativeAddSinkCallback(mHandle, name)) {
-                    cbList = new ArrayList<>();
-                    cbList.add(callback);
-                    mSinkCallbacks.put(name, cbList);
+                if (nativeAddSinkCallback(mHandle, name, zeroCopy)) {
+                    mSinkCallbacks.put(name, new SinkCallbacks(zeroCopy).add(callback));
                 } else {
                     throw new IllegalStateException("Failed to register sink callback to " + name);
                 }
@@ -386,78 +802,413 @@ public final class Pipeline implements AutoCloseable {
             throw new IllegalArgumentException("Given callback is null");
         }
 
-        synchronized(this) {
-            ArrayList<NewDataCallback> cbList = mSinkCallbacks.get(name);
+        synchronized(mSinkLock) {
+            SinkCallbacks cbList = mSinkCallbacks.get(name);
 
             if (cbList == null || !cbList.contains(callback)) {
                 throw new IllegalStateException("Failed to unregister sink callback from " + name);
             }
 
-            cbList.remove(callback);
-            if (cbList.isEmpty()) {
+            cbList = cbList.remove(callback);
+            if (cbList.callbacks.length == 0) {
                 /* remove callback */
                 mSinkCallbacks.remove(name);
                 nativeRemoveSinkCallback(mHandle, name);
+            } else {
+                mSinkCallbacks.put(name, cbList);
             }
         }
     }
 
     /**
-     * Sets a surface to video sink element.
-     * If {@code surface} is null, this will stop using the old surface.
-     * Note that, this method is available only on Android.
+     * Sets the queue to deliver the data of a sink node asynchronously.
+     * The streaming thread of the pipeline puts new data into the queue and returns without waiting for the callbacks,
+     * and the callbacks of the sink node are called in the delivery thread of the queue, in the order of data.
+     * When the queue is full, the data is handled with given policy.
+     * If the sink node already has a queue, the pending data in the old queue is dropped.
+     * Note that this is not available if the sink callback is registered in zero-copy mode.
      *
-     * @param name    The name of video sink element
-     * @param surface The window surface instance (android.view.Surface)
+     * @param name   The name of sink node
+     * @param size   The maximum number of data in the queue
+     * @param policy The policy when the queue is full
      *
      * @throws IllegalArgumentException if given param is invalid
-     * @throws IllegalStateException if failed to set the surface to video sink
+     * @throws IllegalStateException if the sink callback is registered in zero-copy mode
      */
-    public void setSurface(String name, Object surface) {
+    public void setSinkQueue(String name, int size, QueuePolicy policy) {
+        setSinkQueue(name, size, policy, null);
+    }
+
+    /**
+     * Sets the queue to deliver the data of a sink node asynchronously, with given executor.
+     * The executor runs a single task at a time for the sink node, to keep the order of data.
+     * If executor is null, the queue creates a new delivery thread.
+     *
+     * @param name     The name of sink node
+     * @param size     The maximum number of data in the queue
+     * @param policy   The policy when the queue is full
+     * @param executor The executor to call the sink callbacks
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if the sink callback is registered in zero-copy mode
+     *
+     * @see #setSinkQueue(String, int, QueuePolicy)
+     */
+    public void setSinkQueue(String name, int size, QueuePolicy policy, Executor executor) {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Given name is invalid");
         }
 
-        if (surface == null) {
-            nativeFinalizeSurface(mHandle, name);
-        } else {
-@BUILD_ANDROID@            if (!(surface instanceof android.view.Surface)) {
-@BUILD_ANDROID@                throw new IllegalArgumentException("Given surface is invalid");
-@BUILD_ANDROID@            }
-@BUILD_ANDROID@
-@BUILD_ANDROID@            if (!((android.view.Surface) surface).isValid()) {
-@BUILD_ANDROID@                throw new IllegalArgumentException("The surface is not available");
-@BUILD_ANDROID@            }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Given queue size is invalid");
+        }
 
-            if (!nativeInitializeSurface(mHandle, name, surface)) {
-                throw new IllegalStateException("Failed to set the surface to " + name);
-            }
+        if (policy == null) {
+            throw new IllegalArgumentException("Given policy is null");
         }
-    }
 
-    /**
-     * Internal method called from native when a new data is available.
-     */
-    private void newDataReceived(String name, TensorsData data) {
-        synchronized(this) {
-            ArrayList<NewDataCallback> cbList = mSinkCallbacks.get(name);
+        SinkQueue old;
 
-            if (cbList != null) {
-                for (int i = 0; i < cbList.size(); i++) {
-                    cbList.get(i).onNewDataReceived(data);
-                }
+        synchronized(mSinkLock) {
+            SinkCallbacks cbList = mSinkCallbacks.get(name);
+
+            if (cbList != null && cbList.zeroCopy) {
+                throw new IllegalStateException("The sink callback of " + name + " is registered in zero-copy mode");
             }
+
+            old = mSinkQueues.put(name, new SinkQueue(name, size, policy, executor));
         }
-    }
 
-    /**
-     * Internal method called from native when the state of pipeline is changed.
-     */
-    private void stateChanged(int value) {
-        synchronized(this) {
-            if (mStateCallback != null) {
-                mStateCallback.onStateChanged(convertPipelineState(value));
-            }
+        if (old != null) {
+            old.close();
+        }
+    }
+
+    /**
+     * Removes the queue of a sink node. The callbacks of the sink node are called synchronously again.
+     * The pending data in the queue is dropped.
+     *
+     * @param name The name of sink node
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public void removeSinkQueue(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        SinkQueue queue;
+
+        synchronized(mSinkLock) {
+            queue = mSinkQueues.remove(name);
+        }
+
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    /**
+     * Gets the statistics of the queue of a sink node.
+     *
+     * @param name The name of sink node
+     *
+     * @return The statistics of the queue
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if the sink node does not have the queue
+     *
+     * @see #setSinkQueue(String, int, QueuePolicy)
+     */
+    public SinkStatistics getSinkStatistics(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        SinkQueue queue = mSinkQueues.get(name);
+
+        if (queue == null) {
+            throw new IllegalStateException("The sink node " + name + " does not have the queue");
+        }
+
+        return queue.getStatistics();
+    }
+
+    /**
+     * Gets the latency statistics of a sink node.
+     * The latency is measured from pushing the stamped frame to the source node,
+     * until the sink node receives the frame (before calling the callbacks).
+     *
+     * @param name The name of sink node
+     *
+     * @return The latency statistics of the sink node
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     *
+     * @see #inputStampedData(String, TensorsData)
+     */
+    public LatencyStatistics getSinkLatency(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        LatencyHistogram histogram = mSinkLatency.get(name);
+
+        return (histogram != null) ? histogram.getStatistics() : new LatencyStatistics(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Resets the latency statistics of a sink node.
+     *
+     * @param name The name of sink node
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public void resetSinkLatency(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        mSinkLatency.remove(name);
+    }
+
+    /**
+     * Opens a reader to pull the data of a sink node.
+     * The reader keeps the data in a ring of reusable slots, the application can get the data at its own pace.
+     * The slots are allocated with the first data and reused for the next data,
+     * so that the reader does not allocate new buffers for each data.
+     * If all slots are filled, new data overwrites the oldest data which is not read.
+     *
+     * @param name     The name of sink node
+     * @param capacity The number of slots in the ring
+     *
+     * @return The reader of the sink node
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to register the callback to sink node in the pipeline
+     */
+    public SinkReader openSinkReader(String name, int capacity) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Given capacity is invalid");
+        }
+
+        SinkReader reader = new SinkReader(name, capacity);
+
+        synchronized(mSinkLock) {
+            SinkCallbacks cbList = mSinkCallbacks.get(name);
+
+            /*
+             * follow the mode of the registered callbacks, otherwise use the default mode
+             * so that the application can register its own callback or queue later
+             */
+            boolean zeroCopy = (cbList != null && cbList.zeroCopy);
+
+            registerSinkCallback(name, reader.mCallback, zeroCopy);
+        }
+
+        return reader;
+    }
+
+    /**
+     * Sets a surface to video sink element.
+     * If {@code surface} is null, this will stop using the old surface.
+     * Note that, this method is available only on Android.
+     *
+     * @param name    The name of video sink element
+     * @param surface The window surface instance (android.view.Surface)
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to set the surface to video sink
+     */
+    public void setSurface(String name, Object surface) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        if (surface == null) {
+            nativeFinalizeSurface(mHandle, name);
+        } else {
+@BUILD_ANDROID@            if (!(surface instanceof android.view.Surface)) {
+@BUILD_ANDROID@                throw new IllegalArgumentException("Given surface is invalid");
+@BUILD_ANDROID@            }
+@BUILD_ANDROID@
+@BUILD_ANDROID@            if (!((android.view.Surface) surface).isValid()) {
+@BUILD_ANDROID@                throw new IllegalArgumentException("The surface is not available");
+@BUILD_ANDROID@            }
+
+            if (!nativeInitializeSurface(mHandle, name, surface)) {
+                throw new IllegalStateException("Failed to set the surface to " + name);
+            }
+        }
+    }
+
+    /**
+     * Internal method called from native when a new data is available.
+     */
+    private void newDataReceived(String name, TensorsData data, long sequenceId, long timestamp) {
+        SinkQueue queue = mSinkQueues.get(name);
+
+        /* the frame without the stamp (e.g., pushed from other source) has negative sequence ID */
+        if (sequenceId >= 0 && sequenceId < mNextSequenceId.get() && timestamp >= 0) {
+            long latency = (System.nanoTime() - timestamp) / 1000;
+
+            if (latency >= 0) {
+                data.setStamp(sequenceId, timestamp);
+                recordLatency(name, latency);
+            }
+        }
+
+        if (queue != null) {
+            queue.offer(data);
+            return;
+        }
+
+        dispatchData(name, data);
+    }
+
+    /**
+     * Internal method to copy the data, allocates new data if the target is null or the information of the data is changed.
+     */
+    private static TensorsData copyData(TensorsData target, TensorsData data) {
+        int count = data.getTensorsCount();
+
+        if (target == null || !target.getInfo().equals(data.getInfo())) {
+            if (target != null) {
+                target.close();
+            }
+
+            target = TensorsData.allocate(data.getTensorsInfo());
+        }
+
+        for (int i = 0; i < count; i++) {
+            ByteBuffer src = data.getTensorData(i).duplicate();
+            ByteBuffer dest = target.getTensorData(i);
+
+            if (dest.capacity() != src.capacity()) {
+                /* flexible data, size of the tensor is changed */
+                dest = TensorsData.allocateByteBuffer(src.capacity());
+                target.setTensorData(i, dest);
+            }
+
+            src.clear();
+            dest.clear();
+            dest.put(src);
+            dest.clear();
+        }
+
+        target.setStamp(data.getSequenceId(), data.getTimestamp());
+        return target;
+    }
+
+    /**
+     * Internal method to get the pending requests of a sink node, registers new callback to the sink node if it is not registered.
+     */
+    private SinkRequests getSinkRequests(String name) {
+        synchronized(mSinkLock) {
+            SinkRequests requests = mSinkRequests.get(name);
+
+            if (requests == null) {
+                SinkCallbacks cbList = mSinkCallbacks.get(name);
+
+                /* follow the mode of the registered callbacks, otherwise use the default mode */
+                boolean zeroCopy = (cbList != null && cbList.zeroCopy);
+
+                requests = new SinkRequests();
+                registerSinkCallback(name, requests, zeroCopy);
+                mSinkRequests.put(name, requests);
+            }
+
+            return requests;
+        }
+    }
+
+    /**
+     * Internal method to fail the pending request after the timeout.
+     */
+    private ScheduledFuture<?> scheduleTimeout(final SinkRequests requests, final long sequenceId, final int timeout) {
+        synchronized(mSinkLock) {
+            if (mRequestTimer == null) {
+                mRequestTimer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "Pipeline-request-timer");
+
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+                mRequestTimer.setRemoveOnCancelPolicy(true);
+            }
+
+            return mRequestTimer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    requests.fail(sequenceId, new TimeoutException("The request " + sequenceId + " is timed out in " + timeout + " ms"));
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Internal method to add the latency of the frame received from a sink node.
+     */
+    private void recordLatency(String name, long latency) {
+        LatencyHistogram histogram = mSinkLatency.get(name);
+
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+
+            histogram = mSinkLatency.putIfAbsent(name, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+
+        histogram.add(latency);
+    }
+
+    /**
+     * Internal method to call the callbacks of a sink node.
+     * The data is closed after calling the callbacks, only if no callback owns the data.
+     */
+    private void dispatchData(String name, TensorsData data) {
+        /* the list is never changed after it is added to the registry, dispatch without locking */
+        SinkCallbacks cbList = mSinkCallbacks.get(name);
+
+        if (cbList != null) {
+            for (NewDataCallback callback : cbList.callbacks) {
+                callback.onNewDataReceived(data);
+            }
+        }
+
+        if (cbList == null || cbList.borrowed) {
+            /* return the buffers to the pool, or release the native buffer in zero-copy mode */
+            data.close();
+        }
+    }
+
+    /**
+     * Internal method called from native when the pipeline releases the buffers of the transferred data.
+     */
+    private void transferCompleted(Object request) {
+        TransferRequest transfer = (TransferRequest) request;
+
+        transfer.future.complete(transfer.data);
+    }
+
+    /**
+     * Internal method called from native when the state of pipeline is changed.
+     */
+    private void stateChanged(int value) {
+        StateChangeCallback callback = mStateCallback;
+
+        if (callback != null) {
+            callback.onStateChanged(convertPipelineState(value));
         }
     }
 
@@ -488,6 +1239,33 @@ public final class Pipeline implements AutoCloseable {
         return state;
     }
 
+    /**
+     * Internal method to push the list of input data frames to source node.
+     */
+    private void inputDataList(String name, List<TensorsData> dataList, long timestamp, long duration) {
+        checkPipelineHandle();
+
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Given name is invalid");
+        }
+
+        if (dataList == null || dataList.isEmpty()) {
+            throw new IllegalArgumentException("Given data list is invalid");
+        }
+
+        TensorsData[] data = dataList.toArray(new TensorsData[0]);
+
+        for (TensorsData d : data) {
+            if (d == null) {
+                throw new IllegalArgumentException("Given data list has null data");
+            }
+        }
+
+        if (!nativeInputDataList(mHandle, name, data, timestamp, duration)) {
+            throw new IllegalStateException("Failed to push data to source node " + name);
+        }
+    }
+
     /**
      * Internal method to check native handle.
      *
@@ -510,9 +1288,27 @@ public final class Pipeline implements AutoCloseable {
 
     @Override
     public void close() {
-        synchronized(this) {
+        synchronized(mSinkLock) {
             mSinkCallbacks.clear();
             mStateCallback = null;
+
+            for (SinkQueue queue : mSinkQueues.values()) {
+                queue.close();
+            }
+
+            mSinkQueues.clear();
+
+            for (SinkRequests requests : mSinkRequests.values()) {
+                requests.failAll(new IllegalStateException("The pipeline is closed"));
+            }
+
+            mSinkRequests.clear();
+            mSources.clear();
+
+            if (mRequestTimer != null) {
+                mRequestTimer.shutdownNow();
+                mRequestTimer = null;
+            }
         }
 
         if (mHandle != 0) {
@@ -520,4 +1316,1170 @@ public final class Pipeline implements AutoCloseable {
             mHandle = 0;
         }
     }
+
+    /**
+     * Internal class for the callbacks of a sink node.
+     * The instance is immutable, registering or unregistering a callback creates a new instance.
+     */
+    private static final class SinkCallbacks {
+        private final boolean zeroCopy;
+        private final boolean borrowed;
+        private final NewDataCallback[] callbacks;
+
+        private SinkCallbacks(boolean zeroCopy) {
+            this(zeroCopy, new NewDataCallback[0]);
+        }
+
+        private SinkCallbacks(boolean zeroCopy, NewDataCallback[] callbacks) {
+            boolean borrowed = true;
+
+            for (NewDataCallback cb : callbacks) {
+                if (!(cb instanceof BorrowedDataCallback)) {
+                    borrowed = false;
+                    break;
+                }
+            }
+
+            this.zeroCopy = zeroCopy;
+            /* the data wrapping the native buffer is always closed */
+            this.borrowed = zeroCopy || borrowed;
+            this.callbacks = callbacks;
+        }
+
+        private boolean contains(NewDataCallback callback) {
+            for (NewDataCallback cb : callbacks) {
+                if (cb.equals(callback)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private SinkCallbacks add(NewDataCallback callback) {
+            NewDataCallback[] added = Arrays.copyOf(callbacks, callbacks.length + 1);
+
+            added[callbacks.length] = callback;
+            return new SinkCallbacks(zeroCopy, added);
+        }
+
+        private SinkCallbacks remove(NewDataCallback callback) {
+            NewDataCallback[] removed = new NewDataCallback[callbacks.length - 1];
+            int index = 0;
+
+            for (NewDataCallback cb : callbacks) {
+                if (!cb.equals(callback)) {
+                    removed[index++] = cb;
+                }
+            }
+
+            return new SinkCallbacks(zeroCopy, removed);
+        }
+    }
+
+    /**
+     * Provides the statistics of the queue of a sink node.
+     *
+     * @see #getSinkStatistics(String)
+     */
+    public static final class SinkStatistics {
+        private final long mQueuedCount;
+        private final long mDroppedCount;
+        private final long mDeliveredCount;
+        private final int mQueueLevel;
+        private final long mTotalWaitTime;
+        private final long mMaxWaitTime;
+
+        private SinkStatistics(long queued, long dropped, long delivered, int level, long totalWait, long maxWait) {
+            mQueuedCount = queued;
+            mDroppedCount = dropped;
+            mDeliveredCount = delivered;
+            mQueueLevel = level;
+            mTotalWaitTime = totalWait;
+            mMaxWaitTime = maxWait;
+        }
+
+        /**
+         * Gets the number of data put into the queue.
+         *
+         * @return The number of queued data
+         */
+        public long getQueuedCount() {
+            return mQueuedCount;
+        }
+
+        /**
+         * Gets the number of data dropped with the policy of the queue.
+         *
+         * @return The number of dropped data
+         */
+        public long getDroppedCount() {
+            return mDroppedCount;
+        }
+
+        /**
+         * Gets the number of data delivered to the callbacks.
+         *
+         * @return The number of delivered data
+         */
+        public long getDeliveredCount() {
+            return mDeliveredCount;
+        }
+
+        /**
+         * Gets the number of data in the queue.
+         *
+         * @return The number of pending data
+         */
+        public int getQueueLevel() {
+            return mQueueLevel;
+        }
+
+        /**
+         * Gets the average time that the delivered data waited in the queue.
+         *
+         * @return The average wait time in microseconds
+         */
+        public long getAverageWaitTime() {
+            return (mDeliveredCount > 0) ? (mTotalWaitTime / mDeliveredCount) : 0;
+        }
+
+        /**
+         * Gets the maximum time that the delivered data waited in the queue.
+         *
+         * @return The maximum wait time in microseconds
+         */
+        public long getMaxWaitTime() {
+            return mMaxWaitTime;
+        }
+    }
+
+    /**
+     * Provides the latency statistics of a sink node.
+     * The percentiles are estimated from a histogram, the error is less than about 3%.
+     *
+     * @see #getSinkLatency(String)
+     */
+    public static final class LatencyStatistics {
+        private final long mCount;
+        private final long mP50Latency;
+        private final long mP95Latency;
+        private final long mP99Latency;
+        private final long mMaxLatency;
+
+        private LatencyStatistics(long count, long p50, long p95, long p99, long max) {
+            mCount = count;
+            mP50Latency = p50;
+            mP95Latency = p95;
+            mP99Latency = p99;
+            mMaxLatency = max;
+        }
+
+        /**
+         * Gets the number of stamped frames received from the sink node.
+         *
+         * @return The number of measured frames
+         */
+        public long getCount() {
+            return mCount;
+        }
+
+        /**
+         * Gets the median (50th percentile) of latency.
+         *
+         * @return The latency in microseconds
+         */
+        public long getP50Latency() {
+            return mP50Latency;
+        }
+
+        /**
+         * Gets the 95th percentile of latency.
+         *
+         * @return The latency in microseconds
+         */
+        public long getP95Latency() {
+            return mP95Latency;
+        }
+
+        /**
+         * Gets the 99th percentile of latency.
+         *
+         * @return The latency in microseconds
+         */
+        public long getP99Latency() {
+            return mP99Latency;
+        }
+
+        /**
+         * Gets the maximum latency.
+         *
+         * @return The latency in microseconds
+         */
+        public long getMaxLatency() {
+            return mMaxLatency;
+        }
+    }
+
+    /**
+     * Internal class for the histogram of latency.
+     * The values under 64 have own buckets, and each power-of-two range above it is divided into 32 buckets.
+     */
+    private static final class LatencyHistogram {
+        private static final int SUB_BITS = 5;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKET_COUNT = (Long.SIZE - SUB_BITS) * SUB_COUNT;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong max = new AtomicLong(0);
+
+        private static int getIndex(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+
+            int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+
+            return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+        }
+
+        private static long getUpperValue(int index) {
+            if (index < SUB_COUNT * 2) {
+                return index;
+            }
+
+            int shift = index / SUB_COUNT - 1;
+            long lower = (long) (SUB_COUNT + index % SUB_COUNT) << shift;
+
+            return lower + (1L << shift) - 1;
+        }
+
+        private void add(long value) {
+            long prev;
+
+            buckets.incrementAndGet(getIndex(value));
+
+            while (value > (prev = max.get())) {
+                if (max.compareAndSet(prev, value)) {
+                    break;
+                }
+            }
+        }
+
+        private long getPercentile(long[] snapshot, long total, long maxValue, double percentile) {
+            long target = (long) Math.ceil(total * percentile);
+            long accumulated = 0;
+
+            for (int i = 0; i < snapshot.length; i++) {
+                accumulated += snapshot[i];
+
+                if (accumulated >= target) {
+                    return Math.min(getUpperValue(i), maxValue);
+                }
+            }
+
+            return maxValue;
+        }
+
+        private LatencyStatistics getStatistics() {
+            long[] snapshot = new long[BUCKET_COUNT];
+            long total = 0;
+
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+
+            if (total == 0) {
+                return new LatencyStatistics(0, 0, 0, 0, 0);
+            }
+
+            long maxValue = max.get();
+
+            return new LatencyStatistics(total,
+                    getPercentile(snapshot, total, maxValue, 0.50),
+                    getPercentile(snapshot, total, maxValue, 0.95),
+                    getPercentile(snapshot, total, maxValue, 0.99),
+                    maxValue);
+        }
+    }
+
+    /**
+     * Internal class for the queue to deliver the data of a sink node asynchronously.
+     */
+    private final class SinkQueue implements Runnable {
+        private final String mName;
+        private final int mSize;
+        private final QueuePolicy mPolicy;
+        private final Executor mExecutor;
+        private final ThreadPoolExecutor mOwnExecutor;
+        private final ArrayDeque<SinkFrame> mFrames = new ArrayDeque<>();
+        private boolean mRunning = false;
+        private boolean mClosed = false;
+
+        /* statistics */
+        private long mQueuedCount = 0;
+        private long mDroppedCount = 0;
+        private long mDeliveredCount = 0;
+        private long mTotalWaitTime = 0;
+        private long mMaxWaitTime = 0;
+
+        private SinkQueue(final String name, int size, QueuePolicy policy, Executor executor) {
+            mName = name;
+            mSize = size;
+            mPolicy = policy;
+
+            if (executor == null) {
+                mOwnExecutor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new ThreadFactory() {
+                            @Override
+                            public Thread newThread(Runnable r) {
+                                Thread thread = new Thread(r, "Pipeline-sink-" + name);
+
+                                thread.setDaemon(true);
+                                return thread;
+                            }
+                        });
+
+                mOwnExecutor.allowCoreThreadTimeOut(true);
+                mExecutor = mOwnExecutor;
+            } else {
+                mOwnExecutor = null;
+                mExecutor = executor;
+            }
+        }
+
+        /**
+         * Puts new data into the queue, called from the streaming thread.
+         */
+        private void offer(TensorsData data) {
+            boolean schedule = false;
+
+            synchronized (this) {
+                if (mPolicy == QueuePolicy.BLOCK) {
+                    while (!mClosed && mFrames.size() >= mSize) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                }
+
+                if (mClosed) {
+                    data.close();
+                    return;
+                }
+
+                if (mPolicy == QueuePolicy.CONFLATE_LATEST) {
+                    while (!mFrames.isEmpty()) {
+                        dropFrame();
+                    }
+                } else if (mFrames.size() >= mSize) {
+                    if (mPolicy != QueuePolicy.DROP_OLDEST) {
+                        /* DROP_NEWEST, or interrupted while blocking */
+                        mDroppedCount++;
+                        data.close();
+                        return;
+                    }
+
+                    dropFrame();
+                }
+
+                mFrames.add(new SinkFrame(data));
+                mQueuedCount++;
+
+                if (!mRunning) {
+                    mRunning = true;
+                    schedule = true;
+                }
+            }
+
+            if (schedule) {
+                try {
+                    mExecutor.execute(this);
+                } catch (RuntimeException e) {
+                    /* the executor rejected the task, drop the pending data */
+                    synchronized (this) {
+                        mRunning = false;
+
+                        while (!mFrames.isEmpty()) {
+                            dropFrame();
+                        }
+
+                        notifyAll();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Internal method to drop the oldest data in the queue.
+         */
+        private void dropFrame() {
+            mFrames.poll().data.close();
+            mDroppedCount++;
+        }
+
+        /**
+         * Calls the callbacks with the data in the queue, called from the executor.
+         */
+        @Override
+        public void run() {
+            while (true) {
+                SinkFrame frame;
+
+                synchronized (this) {
+                    frame = mFrames.poll();
+
+                    if (frame == null) {
+                        mRunning = false;
+                        return;
+                    }
+
+                    long waitTime = (System.nanoTime() - frame.time) / 1000;
+
+                    mDeliveredCount++;
+                    mTotalWaitTime += waitTime;
+                    mMaxWaitTime = Math.max(mMaxWaitTime, waitTime);
+                    notifyAll();
+                }
+
+                try {
+                    dispatchData(mName, frame.data);
+                } catch (RuntimeException e) {
+                    /* ignore the exception from the callback, keep delivering next data */
+                }
+            }
+        }
+
+        /**
+         * Gets the snapshot of the statistics.
+         */
+        private synchronized SinkStatistics getStatistics() {
+            return new SinkStatistics(mQueuedCount, mDroppedCount, mDeliveredCount, mFrames.size(),
+                    mTotalWaitTime, mMaxWaitTime);
+        }
+
+        /**
+         * Drops the pending data and stops the delivery.
+         */
+        private void close() {
+            synchronized (this) {
+                mClosed = true;
+
+                while (!mFrames.isEmpty()) {
+                    dropFrame();
+                }
+
+                notifyAll();
+            }
+
+            if (mOwnExecutor != null) {
+                mOwnExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Internal class for the data in the queue of a sink node.
+     */
+    private static final class SinkFrame {
+        private final TensorsData data;
+        private final long time;
+
+        private SinkFrame(TensorsData data) {
+            this.data = data;
+            this.time = System.nanoTime();
+        }
+    }
+
+    /**
+     * Provides interfaces to pull the data of a sink node.
+     * The data returned by this reader is valid until the next call of {@link #poll()}, {@link #take(int)}
+     * or {@link #drainTo(Collection)}, then the slot of the data is reused for the next data.
+     * Thus, the application should not close the data, and should copy the data if it needs the data afterwards.
+     *
+     * @see #openSinkReader(String, int)
+     */
+    public final class SinkReader implements AutoCloseable {
+        private final String mName;
+        private final int mCapacity;
+        private final ArrayDeque<TensorsData> mFreeSlots = new ArrayDeque<>();
+        private final ArrayDeque<TensorsData> mFilledSlots = new ArrayDeque<>();
+        private final ArrayDeque<TensorsData> mReadSlots = new ArrayDeque<>();
+        private int mAllocated = 0;
+        private long mDroppedCount = 0;
+        private boolean mClosed = false;
+
+        private final NewDataCallback mCallback = new BorrowedDataCallback() {
+            @Override
+            public void onNewDataReceived(TensorsData data) {
+                fillSlot(data);
+            }
+        };
+
+        private SinkReader(String name, int capacity) {
+            mName = name;
+            mCapacity = capacity;
+        }
+
+        /**
+         * Gets the number of slots in the ring.
+         *
+         * @return The capacity of the reader
+         */
+        public int getCapacity() {
+            return mCapacity;
+        }
+
+        /**
+         * Gets the number of data overwritten or dropped because the application did not read the data in time.
+         *
+         * @return The number of dropped data
+         */
+        public synchronized long getDroppedCount() {
+            return mDroppedCount;
+        }
+
+        /**
+         * Gets the next data without waiting.
+         *
+         * @return The next data, or null if no data is available
+         *
+         * @throws IllegalStateException if the reader is closed
+         */
+        public synchronized TensorsData poll() {
+            checkReaderState();
+            recycleSlots();
+
+            return readSlot();
+        }
+
+        /**
+         * Gets the next data.
+         * This will wait until new data is available or the timeout expires.
+         *
+         * @param timeout The time to wait for new data in milliseconds, 0 to wait without timeout
+         *
+         * @return The next data, or null if the timeout expired
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if the reader is closed or interrupted while waiting
+         */
+        public synchronized TensorsData take(int timeout) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("Given timeout is invalid");
+            }
+
+            checkReaderState();
+            recycleSlots();
+
+            long deadline = System.nanoTime() / 1000000 + timeout;
+
+            while (mFilledSlots.isEmpty()) {
+                long remaining = 0;
+
+                if (timeout > 0) {
+                    remaining = deadline - System.nanoTime() / 1000000;
+
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                }
+
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for new data");
+                }
+
+                checkReaderState();
+            }
+
+            return readSlot();
+        }
+
+        /**
+         * Gets all available data without waiting, and adds the data to given collection in order.
+         *
+         * @param batch The collection to add the data
+         *
+         * @return The number of data added to the collection
+         *
+         * @throws IllegalArgumentException if given param is null
+         * @throws IllegalStateException if the reader is closed
+         */
+        public synchronized int drainTo(Collection<TensorsData> batch) {
+            if (batch == null) {
+                throw new IllegalArgumentException("Given collection is null");
+            }
+
+            checkReaderState();
+            recycleSlots();
+
+            int count = 0;
+            TensorsData data;
+
+            while ((data = readSlot()) != null) {
+                batch.add(data);
+                count++;
+            }
+
+            return count;
+        }
+
+        /**
+         * Closes the reader and unregisters it from the sink node.
+         * The data returned by this reader is not available after closing the reader.
+         */
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (mClosed) {
+                    return;
+                }
+
+                mClosed = true;
+                notifyAll();
+            }
+
+            try {
+                unregisterSinkCallback(mName, mCallback);
+            } catch (IllegalStateException e) {
+                /* the pipeline is closed */
+            }
+
+            synchronized (this) {
+                recycleSlots();
+
+                while (!mFilledSlots.isEmpty()) {
+                    mFreeSlots.add(mFilledSlots.poll());
+                }
+
+                for (TensorsData slot : mFreeSlots) {
+                    slot.close();
+                }
+
+                mFreeSlots.clear();
+            }
+        }
+
+        /**
+         * Internal method to check the reader is not closed.
+         */
+        private void checkReaderState() {
+            if (mClosed) {
+                throw new IllegalStateException("The reader is closed");
+            }
+        }
+
+        /**
+         * Internal method to return the slots read by the application.
+         */
+        private void recycleSlots() {
+            while (!mReadSlots.isEmpty()) {
+                mFreeSlots.add(mReadSlots.poll());
+            }
+        }
+
+        /**
+         * Internal method to get the oldest filled slot.
+         */
+        private TensorsData readSlot() {
+            TensorsData slot = mFilledSlots.poll();
+
+            if (slot != null) {
+                mReadSlots.add(slot);
+            }
+
+            return slot;
+        }
+
+        /**
+         * Internal method to copy new data into the slot, called from the streaming thread.
+         */
+        private void fillSlot(TensorsData data) {
+            TensorsData slot;
+
+            synchronized (this) {
+                if (mClosed) {
+                    return;
+                }
+
+                slot = mFreeSlots.poll();
+
+                if (slot == null && mAllocated == mCapacity) {
+                    /* overwrite the oldest data */
+                    slot = mFilledSlots.poll();
+
+                    if (slot == null) {
+                        /* all slots are held by the application */
+                        mDroppedCount++;
+                        return;
+                    }
+
+                    mDroppedCount++;
+                }
+
+                if (slot == null) {
+                    mAllocated++;
+                }
+            }
+
+            /* copy the data without locking the reader */
+            slot = copyData(slot, data);
+
+            synchronized (this) {
+                if (mClosed) {
+                    slot.close();
+                    return;
+                }
+
+                mFilledSlots.add(slot);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Provides interfaces to push data to a source node without finding the element by name.
+     * The handle is available until the pipeline is closed.
+     *
+     * @see #getSource(String)
+     */
+    public final class Source {
+        private final String mName;
+        private final long mNode;
+
+        private Source(String name, long node) {
+            mName = name;
+            mNode = node;
+        }
+
+        /**
+         * Gets the name of the source node.
+         *
+         * @return The name of the source node
+         */
+        public String getName() {
+            return mName;
+        }
+
+        /**
+         * Adds an input data frame to the source node.
+         *
+         * @param data The tensors data to be pushed
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if failed to push data to source node
+         *
+         * @see #inputData(String, TensorsData)
+         */
+        public void push(TensorsData data) {
+            checkPipelineHandle();
+
+            if (data == null) {
+                throw new IllegalArgumentException("Given data is null");
+            }
+
+            if (!nativeSourceInputData(mHandle, mNode, data)) {
+                throw new IllegalStateException("Failed to push data to source node " + mName);
+            }
+        }
+
+        /**
+         * Adds an input data frame with the sequence ID and timestamp to the source node.
+         *
+         * @param data The tensors data to be pushed
+         *
+         * @return The sequence ID of the frame
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if failed to push data to source node
+         *
+         * @see #inputStampedData(String, TensorsData)
+         */
+        public long pushStamped(TensorsData data) {
+            checkPipelineHandle();
+
+            if (data == null) {
+                throw new IllegalArgumentException("Given data is null");
+            }
+
+            long sequenceId = mNextSequenceId.getAndIncrement();
+
+            pushStamped(data, sequenceId);
+            return sequenceId;
+        }
+
+        /**
+         * Internal method to push the data with given sequence ID.
+         */
+        private void pushStamped(TensorsData data, long sequenceId) {
+            if (!nativeSourceInputStampedData(mHandle, mNode, data, sequenceId, System.nanoTime())) {
+                throw new IllegalStateException("Failed to push data to source node " + mName);
+            }
+        }
+
+        /**
+         * Adds an input data frame to the source node if the source node can accept it immediately.
+         *
+         * @param data The tensors data to be pushed
+         *
+         * @return The status of pushing data
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if failed to push data to source node
+         *
+         * @see #tryInputData(String, TensorsData)
+         */
+        public InputStatus tryPush(TensorsData data) {
+            checkPipelineHandle();
+
+            if (data == null) {
+                throw new IllegalArgumentException("Given data is null");
+            }
+
+            int status = nativeSourceTryInputData(mHandle, mNode, data);
+            if (status < 0) {
+                throw new IllegalStateException("Failed to push data to source node " + mName);
+            }
+
+            return InputStatus.values()[status];
+        }
+
+        /**
+         * Gets the byte size of the data queued in the source node.
+         *
+         * @return The byte size of the queued data
+         *
+         * @throws IllegalStateException if failed to get the queue level of source node
+         */
+        public long getQueueLevel() {
+            return getQueueBytes(false);
+        }
+
+        /**
+         * Gets the maximum byte size of the data to be queued in the source node. 0 means the queue is unlimited.
+         *
+         * @return The maximum byte size of the queue
+         *
+         * @throws IllegalStateException if failed to get the queue capacity of source node
+         */
+        public long getQueueCapacity() {
+            return getQueueBytes(true);
+        }
+
+        /**
+         * Internal method to get the queue level or capacity of the source node.
+         */
+        private long getQueueBytes(boolean capacity) {
+            checkPipelineHandle();
+
+            long bytes = nativeSourceGetQueueBytes(mNode, capacity);
+            if (bytes < 0) {
+                throw new IllegalStateException("Failed to get the queue of source node " + mName);
+            }
+
+            return bytes;
+        }
+
+        /**
+         * Adds an input data frame to the source node without copying the data.
+         *
+         * @param data The tensors data to be pushed
+         *
+         * @return The future to be completed with the data when the pipeline releases the buffers
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if failed to push data to source node
+         *
+         * @see #transferData(String, TensorsData)
+         */
+        public CompletableFuture<TensorsData> transfer(TensorsData data) {
+            checkPipelineHandle();
+
+            if (data == null) {
+                throw new IllegalArgumentException("Given data is null");
+            }
+
+            TransferRequest request = new TransferRequest(data);
+
+            if (!nativeSourceTransferData(mHandle, mNode, data, request)) {
+                throw new IllegalStateException("Failed to push data to source node " + mName);
+            }
+
+            return request.future;
+        }
+    }
+
+    /**
+     * Provides interfaces to receive the data of a sink node.
+     *
+     * @see #getSink(String)
+     */
+    public final class Sink {
+        private final String mName;
+
+        private Sink(String name) {
+            mName = name;
+        }
+
+        /**
+         * Gets the name of the sink node.
+         *
+         * @return The name of the sink node
+         */
+        public String getName() {
+            return mName;
+        }
+
+        /**
+         * Registers new data callback to the sink node.
+         *
+         * @param callback The callback for new data
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if failed to register the callback to sink node in the pipeline
+         *
+         * @see #registerSinkCallback(String, NewDataCallback)
+         */
+        public void registerCallback(NewDataCallback callback) {
+            registerSinkCallback(mName, callback);
+        }
+
+        /**
+         * Unregisters data callback from the sink node.
+         *
+         * @param callback The callback object to be unregistered
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if failed to unregister the callback from sink node
+         *
+         * @see #unregisterSinkCallback(String, NewDataCallback)
+         */
+        public void unregisterCallback(NewDataCallback callback) {
+            unregisterSinkCallback(mName, callback);
+        }
+
+        /**
+         * Opens a reader to pull the data of the sink node.
+         *
+         * @param capacity The number of slots in the ring
+         *
+         * @return The reader of the sink node
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if failed to register the callback to sink node in the pipeline
+         *
+         * @see #openSinkReader(String, int)
+         */
+        public SinkReader openReader(int capacity) {
+            return openSinkReader(mName, capacity);
+        }
+    }
+
+    /**
+     * Provides interfaces to control a switch without finding the element by name.
+     * The handle is available until the pipeline is closed.
+     *
+     * @see #getSwitch(String)
+     */
+    public final class Switch {
+        private final String mName;
+        private final long mNode;
+
+        private Switch(String name, long node) {
+            mName = name;
+            mNode = node;
+        }
+
+        /**
+         * Gets the name of the switch.
+         *
+         * @return The name of the switch
+         */
+        public String getName() {
+            return mName;
+        }
+
+        /**
+         * Gets the pad names of the switch.
+         *
+         * @return The list of pad names
+         *
+         * @throws IllegalStateException if failed to get the list of pad names
+         *
+         * @see #getSwitchPads(String)
+         */
+        public String[] getPads() {
+            return getSwitchPads(mName);
+        }
+
+        /**
+         * Controls the switch to select input/output nodes (pads).
+         *
+         * @param pad The name of the chosen pad to be activated
+         *
+         * @throws IllegalArgumentException if given param is invalid
+         * @throws IllegalStateException if failed to select the switch pad
+         *
+         * @see #selectSwitchPad(String, String)
+         */
+        public void select(String pad) {
+            checkPipelineHandle();
+
+            if (pad == null || pad.isEmpty()) {
+                throw new IllegalArgumentException("Given pad is invalid");
+            }
+
+            if (!nativeSwitchSelect(mNode, pad)) {
+                throw new IllegalStateException("Failed to select the pad " + pad);
+            }
+        }
+    }
+
+    /**
+     * Provides interfaces to control a valve without finding the element by name.
+     * The handle is available until the pipeline is closed.
+     *
+     * @see #getValve(String)
+     */
+    public final class Valve {
+        private final String mName;
+        private final long mNode;
+
+        private Valve(String name, long node) {
+            mName = name;
+            mNode = node;
+        }
+
+        /**
+         * Gets the name of the valve.
+         *
+         * @return The name of the valve
+         */
+        public String getName() {
+            return mName;
+        }
+
+        /**
+         * Controls the valve.
+         * Set the flag true to open (let the flow pass), false to close (drop & stop the flow).
+         *
+         * @param open The flag to control the flow
+         *
+         * @throws IllegalStateException if failed to change the valve state
+         *
+         * @see #controlValve(String, boolean)
+         */
+        public void setOpen(boolean open) {
+            checkPipelineHandle();
+
+            if (!nativeValveSetOpen(mNode, open)) {
+                throw new IllegalStateException("Failed to change the valve " + mName);
+            }
+        }
+    }
+
+    /**
+     * Internal class for the pending requests of a sink node.
+     * The pending requests are sorted by the sequence ID, to find the dropped frames.
+     * Only the frames of the requests complete the futures, other frames (unstamped or pushed without request) are ignored.
+     */
+    private static final class SinkRequests implements BorrowedDataCallback {
+        private final ConcurrentSkipListMap<Long, PendingRequest> pending = new ConcurrentSkipListMap<>();
+
+        @Override
+        public void onNewDataReceived(TensorsData data) {
+            long sequenceId = data.getSequenceId();
+
+            if (sequenceId < 0) {
+                /* the frame is not stamped */
+                return;
+            }
+
+            PendingRequest request = pending.remove(sequenceId);
+
+            if (request == null) {
+                /* the frame is not requested, or the request is already failed */
+                return;
+            }
+
+            /* the frames of older requests from the same source are dropped in the pipeline */
+            for (Map.Entry<Long, PendingRequest> entry : pending.headMap(sequenceId).entrySet()) {
+                if (entry.getValue().source == request.source && pending.remove(entry.getKey(), entry.getValue())) {
+                    entry.getValue().fail(new IllegalStateException("The frame of request " + entry.getKey() + " is dropped"));
+                }
+            }
+
+            request.complete(copyData(null, data));
+        }
+
+        private void add(long sequenceId, PendingRequest request) {
+            pending.put(sequenceId, request);
+        }
+
+        private void fail(long sequenceId, Throwable cause) {
+            PendingRequest request = pending.remove(sequenceId);
+
+            if (request != null) {
+                request.fail(cause);
+            }
+        }
+
+        private void failAll(Throwable cause) {
+            Map.Entry<Long, PendingRequest> entry;
+
+            while ((entry = pending.pollFirstEntry()) != null) {
+                entry.getValue().fail(cause);
+            }
+        }
+    }
+
+    /**
+     * Internal class for the request waiting for the result in a sink node.
+     */
+    private static final class PendingRequest {
+        private final Source source;
+        private final CompletableFuture<TensorsData> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timer = null;
+
+        private PendingRequest(Source source) {
+            this.source = source;
+        }
+
+        private void complete(TensorsData data) {
+            cancelTimer();
+            future.complete(data);
+        }
+
+        private void fail(Throwable cause) {
+            cancelTimer();
+            future.completeExceptionally(cause);
+        }
+
+        private void cancelTimer() {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Internal class for the data transferred to the pipeline.
+     */
+    private static final class TransferRequest {
+        private final TensorsData data;
+        private final CompletableFuture<TensorsData> future = new CompletableFuture<>();
+
+        private TransferRequest(TensorsData data) {
+            this.data = data;
+        }
+    }
 }
@@ -7,6 +7,15 @@
 package org.nnsuite.nnstreamer;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Provides interfaces to invoke a neural network model with a single instance of input data.<br>
@@ -20,11 +29,32 @@ import java.io.File;
  * - Utility functions to get the information of opened model.<br>
  */
 public final class SingleShot implements AutoCloseable {
+    /**
+     * The default number of pending requests of asynchronous invocation.
+     */
+    public static final int DEFAULT_ASYNC_QUEUE_SIZE = 16;
+
+    /**
+     * The enumeration for the policy when the queue of asynchronous invocation is full.
+     *
+     * @see #setAsyncQueue(int, RejectionPolicy)
+     */
+    public enum RejectionPolicy {
+        /** Completes the future of new request exceptionally with {@link RejectedExecutionException} */ ABORT,
+        /** Cancels the oldest pending request and queues new request */ DISCARD_OLDEST,
+        /** Blocks the caller until the queue has a room for new request */ BLOCK
+    }
+
     private long mHandle = 0;
+    private ThreadPoolExecutor mExecutor = null;
+    private boolean mClosed = false;
+    private int mAsyncQueueSize = DEFAULT_ASYNC_QUEUE_SIZE;
+    private RejectionPolicy mRejectionPolicy = RejectionPolicy.ABORT;
 
     private native long nativeOpen(String[] models, TensorsInfo inputInfo, TensorsInfo outputInfo, int fw, String custom);
     private native void nativeClose(long handle);
     private native TensorsData nativeInvoke(long handle, TensorsData inputData);
+    private native boolean nativeInvokeWithOutput(long handle, TensorsData inputData, TensorsData outputData);
     private native TensorsInfo nativeGetInputInfo(long handle);
     private native TensorsInfo nativeGetOutputInfo(long handle);
     private native boolean nativeSetProperty(long handle, String name, String value);
@@ -183,6 +213,120 @@ public final class SingleShot implements AutoCloseable {
         return out;
     }
 
+    /**
+     * Invokes the model with the given input data, and writes the result into the given output data.
+     *
+     * Unlike {@link #invoke(TensorsData)}, this does not allocate a new output data for each invocation.
+     * The output data should be allocated with the output information of the model (see {@link #getOutputInfo()})
+     * and can be reused for the next invocation, as long as the output information is not changed.
+     * Note that this is not available if the model has flexible output data,
+     * and the output data should be writable (e.g., not mapped with read-only mode).
+     *
+     * @param in  The input data to be inferred (a single frame, tensor/tensors)
+     * @param out The output data to be filled with the result (a single frame, tensor/tensors)
+     *
+     * @throws IllegalStateException if this failed to invoke the model
+     * @throws IllegalArgumentException if given param is null or the output data is read-only
+     */
+    public void invoke(TensorsData in, TensorsData out) {
+        checkPipelineHandle();
+
+        if (in == null) {
+            throw new IllegalArgumentException("Given input data is null");
+        }
+
+        if (out == null) {
+            throw new IllegalArgumentException("Given output data is null");
+        }
+
+        /* native writes the result into the output buffers directly */
+        for (int i = 0; i < out.getTensorsCount(); i++) {
+            if (out.getTensorData(i).isReadOnly()) {
+                throw new IllegalArgumentException("Given output data is read-only");
+            }
+        }
+
+        if (!nativeInvokeWithOutput(mHandle, in, out)) {
+            throw new IllegalStateException("Failed to invoke the model");
+        }
+    }
+
+    /**
+     * Invokes the model asynchronously with the given input data.
+     *
+     * The request is queued and the model is invoked in the inference thread of this instance, in the order of requests.
+     * When the queue is full, the request is handled with the policy given by {@link #setAsyncQueue(int, RejectionPolicy)}.
+     * The application should not change the input data until the returned future is completed.
+     *
+     * Cancelling the future removes the pending request.
+     * Once the model is invoked, the invocation is not interrupted; it ends with the result
+     * or the timeout given by {@link #setTimeout(int)}, and then the result is discarded.
+     *
+     * @param in The input data to be inferred (a single frame, tensor/tensors)
+     *
+     * @return The future to be completed with the output data (a single frame, tensor/tensors)
+     *
+     * @throws IllegalStateException if the pipeline is not constructed or closed
+     * @throws IllegalArgumentException if given param is null
+     */
+    public CompletableFuture<TensorsData> invokeAsync(TensorsData in) {
+        checkPipelineHandle();
+
+        if (in == null) {
+            throw new IllegalArgumentException("Given input data is null");
+        }
+
+        AsyncRequest request = new AsyncRequest(in);
+
+        /*
+         * Queue the request without the lock, the request may wait for the queue with blocking policy.
+         * If the executor is shut down meanwhile, retry with new executor (getExecutor() throws after closing).
+         */
+        while (true) {
+            ThreadPoolExecutor executor = getExecutor();
+
+            try {
+                executor.execute(request);
+                break;
+            } catch (RejectedExecutionException e) {
+                /* the executor is shut down by close() or setAsyncQueue() */
+            }
+        }
+
+        return request.future;
+    }
+
+    /**
+     * Sets the size of queue and the rejection policy for asynchronous invocation.
+     * If there are requests in the queue, this waits until the requests are done.
+     * The default queue size is {@link #DEFAULT_ASYNC_QUEUE_SIZE} and the default policy is {@link RejectionPolicy#ABORT}.
+     *
+     * @param size   The number of pending requests
+     * @param policy The policy when the queue is full
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public void setAsyncQueue(int size, RejectionPolicy policy) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Given size is invalid");
+        }
+
+        if (policy == null) {
+            throw new IllegalArgumentException("Given policy is null");
+        }
+
+        synchronized (this) {
+            /* wait for the requests before creating new executor, the requests are never invoked concurrently */
+            if (mExecutor != null) {
+                shutdownExecutor(mExecutor, false);
+                mExecutor = null;
+            }
+
+            mAsyncQueueSize = size;
+            mRejectionPolicy = policy;
+        }
+    }
+
     /**
      * Gets the information (tensor dimension, type, name and so on) of required input data for the given model.
      *
@@ -319,6 +463,72 @@ public final class SingleShot implements AutoCloseable {
         }
     }
 
+    /**
+     * Internal method to get the executor for asynchronous invocation.
+     * The inference thread is terminated when there is no request for a while.
+     *
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (mClosed) {
+            throw new IllegalStateException("The pipeline is closed");
+        }
+
+        if (mExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(mAsyncQueueSize),
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "SingleShot-invoke");
+
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    },
+                    new AsyncRejectionHandler(mRejectionPolicy));
+
+            executor.allowCoreThreadTimeOut(true);
+            mExecutor = executor;
+        }
+
+        return mExecutor;
+    }
+
+    /**
+     * Internal method to shut down the executor and wait for the running request.
+     * The pending requests are failed if cancelPending is true.
+     */
+    private static void shutdownExecutor(ThreadPoolExecutor executor, boolean cancelPending) {
+        executor.shutdown();
+
+        if (cancelPending) {
+            ArrayList<Runnable> pending = new ArrayList<>();
+
+            executor.getQueue().drainTo(pending);
+            for (Runnable r : pending) {
+                ((AsyncRequest) r).future.completeExceptionally(
+                        new IllegalStateException("The pipeline is closed"));
+            }
+        }
+
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     protected void finalize() throws Throwable {
         try {
@@ -330,12 +540,106 @@ public final class SingleShot implements AutoCloseable {
 
     @Override
     public void close() {
+        ThreadPoolExecutor executor;
+
+        synchronized (this) {
+            /* no executor is created after closing */
+            mClosed = true;
+            executor = mExecutor;
+            mExecutor = null;
+        }
+
+        if (executor != null) {
+            shutdownExecutor(executor, true);
+        }
+
         if (mHandle != 0) {
             nativeClose(mHandle);
             mHandle = 0;
         }
     }
 
+    /**
+     * Internal class for the request of asynchronous invocation.
+     */
+    private class AsyncRequest implements Runnable {
+        private final TensorsData input;
+        private final CompletableFuture<TensorsData> future = new CompletableFuture<>();
+
+        private AsyncRequest(TensorsData input) {
+            this.input = input;
+        }
+
+        @Override
+        public void run() {
+            /* cancelled before the invocation */
+            if (future.isDone()) {
+                return;
+            }
+
+            try {
+                TensorsData out = invoke(input);
+
+                if (!future.complete(out)) {
+                    out.close();
+                }
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Internal class to handle the request when the queue is full.
+     * If the executor is shut down, this throws {@link RejectedExecutionException} and the request is not queued.
+     */
+    private static class AsyncRejectionHandler implements RejectedExecutionHandler {
+        private final RejectionPolicy policy;
+
+        private AsyncRejectionHandler(RejectionPolicy policy) {
+            this.policy = policy;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            AsyncRequest request = (AsyncRequest) r;
+            BlockingQueue<Runnable> queue = executor.getQueue();
+
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("The executor is shut down");
+            }
+
+            switch (policy) {
+                case DISCARD_OLDEST:
+                    Runnable oldest = queue.poll();
+
+                    if (oldest != null) {
+                        ((AsyncRequest) oldest).future.cancel(false);
+                    }
+
+                    executor.execute(request);
+                    break;
+                case BLOCK:
+                    try {
+                        queue.put(request);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        request.future.completeExceptionally(e);
+                        break;
+                    }
+
+                    /* the executor is shut down while waiting, the request may not be invoked */
+                    if (executor.isShutdown() && executor.remove(request)) {
+                        throw new RejectedExecutionException("The executor is shut down");
+                    }
+                    break;
+                default:
+                    request.future.completeExceptionally(new RejectedExecutionException("The queue is full"));
+                    break;
+            }
+        }
+    }
+
     /**
      * Provides interfaces to configure SingleShot instance.
      */
@@ -0,0 +1,406 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/*
+ * NNStreamer Android API
+ * Copyright (C) 2026 Samsung Electronics Co., Ltd.
+ */
+
+package org.nnsuite.nnstreamer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Provides interfaces to invoke a neural network model with the batches of input data from multiple requests.<br>
+ * <br>
+ * SingleShotBatcher collects the requests until the number of requests reaches the batch size
+ * or the first request has waited for the maximum wait time.
+ * Then it packs the input data into the batch dimension (the outermost dimension) of the model,
+ * invokes the model once and scatters the output data to the requests.
+ * If the number of requests is less than the batch size, the remaining frames in the batch are filled with zero.<br>
+ * <br>
+ * Each request has a single frame of the input data, of which the outermost dimension is 1.
+ * For example, if the model has the input dimension 3:224:224:4 and the output dimension 1001:4,
+ * the batch size is 4, and a request has the input data 3:224:224:1 and gets the output data 1001:1.
+ */
+public final class SingleShotBatcher implements AutoCloseable {
+    private static final ByteBuffer ZERO_BUFFER = ByteBuffer.allocateDirect(4096);
+
+    private final SingleShot mSingle;
+    private final int mBatchSize;
+    private final int mMaxWaitTime;
+    private final TensorsInfo mInputFrameInfo;
+    private final TensorsInfo mOutputFrameInfo;
+    private final TensorsData mBatchInput;
+    private final TensorsData mBatchOutput;
+    private final ArrayDeque<BatchRequest> mQueue = new ArrayDeque<>();
+    private final Thread mThread;
+    private boolean mClosed = false;
+
+    /* statistics */
+    private long mBatchCount = 0;
+    private long mRequestCount = 0;
+
+    /**
+     * Creates a new SingleShotBatcher instance.
+     * If the outermost dimension of the model input is not the same as given batch size,
+     * this sets the input information of the model with the batch size.
+     *
+     * Note that the application should not invoke the model directly
+     * and should close the {@link SingleShot} instance after closing this instance.
+     *
+     * @param single      The {@link SingleShot} instance of the model
+     * @param batchSize   The maximum number of requests in a batch
+     * @param maxWaitTime The maximum time to wait for the requests, in milliseconds
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if the model does not support given batch size
+     */
+    public SingleShotBatcher(SingleShot single, int batchSize, int maxWaitTime) {
+        if (single == null) {
+            throw new IllegalArgumentException("Given SingleShot is null");
+        }
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Given batch size is invalid");
+        }
+
+        if (maxWaitTime < 0) {
+            throw new IllegalArgumentException("Given wait time is invalid");
+        }
+
+        TensorsInfo inInfo = single.getInputInfo();
+
+        if (!hasBatchDimension(inInfo, batchSize)) {
+            setBatchDimension(inInfo, batchSize);
+            single.setInputInfo(inInfo);
+        }
+
+        TensorsInfo outInfo = single.getOutputInfo();
+
+        if (outInfo.getFormat() != NNStreamer.TensorFormat.STATIC || !hasBatchDimension(outInfo, batchSize)) {
+            throw new IllegalStateException("The output of the model does not have the batch dimension");
+        }
+
+        mSingle = single;
+        mBatchSize = batchSize;
+        mMaxWaitTime = maxWaitTime;
+        mBatchInput = inInfo.allocate();
+        mBatchOutput = outInfo.allocate();
+
+        /* the frozen info of a frame is shared with the output data of each request */
+        TensorsInfo frameInfo = inInfo.clone();
+        setBatchDimension(frameInfo, 1);
+        mInputFrameInfo = frameInfo.freeze();
+
+        frameInfo = outInfo.clone();
+        setBatchDimension(frameInfo, 1);
+        mOutputFrameInfo = frameInfo.freeze();
+
+        mThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                processRequests();
+            }
+        }, "SingleShot-batcher");
+        mThread.setDaemon(true);
+        mThread.start();
+    }
+
+    /**
+     * Requests to invoke the model with the given input data.
+     * The application should not change the input data until the returned future is completed.
+     *
+     * @param in The input data to be inferred (a single frame, tensor/tensors)
+     *
+     * @return The future to be completed with the output data (a single frame, tensor/tensors)
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if the batcher is closed
+     */
+    public CompletableFuture<TensorsData> invoke(TensorsData in) {
+        if (in == null) {
+            throw new IllegalArgumentException("Given input data is null");
+        }
+
+        int count = mInputFrameInfo.getTensorsCount();
+
+        if (in.getTensorsCount() != count) {
+            throw new IllegalArgumentException("Given input data is invalid");
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (in.getTensorData(i).capacity() != mInputFrameInfo.getTensorSize(i)) {
+                throw new IllegalArgumentException("Given input data is invalid");
+            }
+        }
+
+        BatchRequest request = new BatchRequest(in);
+
+        synchronized (this) {
+            if (mClosed) {
+                throw new IllegalStateException("The batcher is closed");
+            }
+
+            mQueue.add(request);
+            notifyAll();
+        }
+
+        return request.future;
+    }
+
+    /**
+     * Gets the batch size.
+     *
+     * @return The maximum number of requests in a batch
+     */
+    public int getBatchSize() {
+        return mBatchSize;
+    }
+
+    /**
+     * Gets the information of the input data for a request.
+     *
+     * @return The input tensors information of which the batch dimension is 1
+     */
+    public TensorsInfo getInputInfo() {
+        return mInputFrameInfo.clone();
+    }
+
+    /**
+     * Gets the information of the output data for a request.
+     *
+     * @return The output tensors information of which the batch dimension is 1
+     */
+    public TensorsInfo getOutputInfo() {
+        return mOutputFrameInfo.clone();
+    }
+
+    /**
+     * Gets the number of model invocations.
+     *
+     * @return The number of batches
+     */
+    public synchronized long getBatchCount() {
+        return mBatchCount;
+    }
+
+    /**
+     * Gets the number of requests processed with the model invocations.
+     *
+     * @return The number of requests
+     */
+    public synchronized long getRequestCount() {
+        return mRequestCount;
+    }
+
+    /**
+     * Internal method to check the outermost dimension of the tensors.
+     */
+    private static boolean hasBatchDimension(TensorsInfo info, int batchSize) {
+        for (int i = 0; i < info.getTensorsCount(); i++) {
+            int[] dimension = info.getTensorDimension(i);
+
+            if (dimension.length == 0 || dimension[dimension.length - 1] != batchSize) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Internal method to set the outermost dimension of the tensors.
+     */
+    private static void setBatchDimension(TensorsInfo info, int batchSize) {
+        for (int i = 0; i < info.getTensorsCount(); i++) {
+            int[] dimension = info.getTensorDimension(i);
+
+            dimension[dimension.length - 1] = batchSize;
+            info.setTensorDimension(i, dimension);
+        }
+    }
+
+    /**
+     * Internal method to get the requests for a batch.
+     * Returns null if the batcher is closed.
+     */
+    private synchronized ArrayList<BatchRequest> takeRequests() throws InterruptedException {
+        while (!mClosed && mQueue.isEmpty()) {
+            wait();
+        }
+
+        /* wait for more requests until the first request has waited for the maximum wait time */
+        long deadline = mQueue.isEmpty() ? 0 : mQueue.peek().time + mMaxWaitTime;
+
+        while (!mClosed && mQueue.size() < mBatchSize) {
+            long remaining = deadline - System.nanoTime() / 1000000;
+
+            if (remaining <= 0) {
+                break;
+            }
+
+            wait(remaining);
+        }
+
+        if (mClosed) {
+            return null;
+        }
+
+        ArrayList<BatchRequest> requests = new ArrayList<>(mBatchSize);
+
+        while (requests.size() < mBatchSize && !mQueue.isEmpty()) {
+            BatchRequest request = mQueue.poll();
+
+            /* skip cancelled request */
+            if (!request.future.isDone()) {
+                requests.add(request);
+            }
+        }
+
+        return requests;
+    }
+
+    /**
+     * Internal method to invoke the model with the batches, called from the batcher thread.
+     */
+    private void processRequests() {
+        while (true) {
+            ArrayList<BatchRequest> requests;
+
+            try {
+                requests = takeRequests();
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            if (requests == null) {
+                break;
+            }
+
+            if (requests.isEmpty()) {
+                continue;
+            }
+
+            try {
+                invokeBatch(requests);
+            } catch (Exception e) {
+                for (BatchRequest request : requests) {
+                    request.future.completeExceptionally(e);
+                }
+            }
+
+            synchronized (this) {
+                mBatchCount++;
+                mRequestCount += requests.size();
+            }
+        }
+    }
+
+    /**
+     * Internal method to pack the input data, invoke the model and scatter the output data.
+     */
+    private void invokeBatch(ArrayList<BatchRequest> requests) {
+        int count = requests.size();
+
+        for (int i = 0; i < mInputFrameInfo.getTensorsCount(); i++) {
+            ByteBuffer batch = mBatchInput.getTensorData(i);
+
+            batch.clear();
+            for (BatchRequest request : requests) {
+                ByteBuffer frame = request.input.getTensorData(i).duplicate();
+
+                frame.clear();
+                batch.put(frame);
+            }
+
+            /* fill the remaining frames with zero */
+            while (batch.hasRemaining()) {
+                ByteBuffer zero = ZERO_BUFFER.duplicate();
+
+                zero.limit(Math.min(zero.capacity(), batch.remaining()));
+                batch.put(zero);
+            }
+
+            batch.clear();
+        }
+
+        mSingle.invoke(mBatchInput, mBatchOutput);
+
+        for (int k = 0; k < count; k++) {
+            TensorsData out = TensorsData.allocate(mOutputFrameInfo);
+
+            for (int i = 0; i < mOutputFrameInfo.getTensorsCount(); i++) {
+                ByteBuffer batch = mBatchOutput.getTensorData(i).duplicate();
+                int frameSize = mOutputFrameInfo.getTensorSize(i);
+
+                batch.position(k * frameSize);
+                batch.limit((k + 1) * frameSize);
+                out.getTensorData(i).put(batch);
+                out.getTensorData(i).clear();
+            }
+
+            if (!requests.get(k).future.complete(out)) {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Closes the batcher. The pending requests are failed.
+     * Note that this does not close the {@link SingleShot} instance.
+     */
+    @Override
+    public void close() {
+        ArrayList<BatchRequest> pending;
+
+        synchronized (this) {
+            if (mClosed) {
+                return;
+            }
+
+            mClosed = true;
+            pending = new ArrayList<>(mQueue);
+            mQueue.clear();
+            notifyAll();
+        }
+
+        for (BatchRequest request : pending) {
+            request.future.completeExceptionally(new IllegalStateException("The batcher is closed"));
+        }
+
+        /* wait for the running batch */
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                mThread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        mBatchInput.close();
+        mBatchOutput.close();
+    }
+
+    /**
+     * Internal class for the request.
+     */
+    private static class BatchRequest {
+        private final TensorsData input;
+        private final long time;
+        private final CompletableFuture<TensorsData> future = new CompletableFuture<>();
+
+        private BatchRequest(TensorsData input) {
+            this.input = input;
+            this.time = System.nanoTime() / 1000000;
+        }
+    }
+}
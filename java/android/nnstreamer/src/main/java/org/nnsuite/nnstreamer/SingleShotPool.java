@@ -0,0 +1,527 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/*
+ * NNStreamer Android API
+ * Copyright (C) 2026 Samsung Electronics Co., Ltd.
+ */
+
+package org.nnsuite.nnstreamer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Provides interfaces to invoke a neural network model from multiple threads concurrently.<br>
+ * <br>
+ * A {@link SingleShot} instance handles one invocation at a time.
+ * SingleShotPool opens the instances with the same {@link SingleShot.Options}
+ * and hands out an instance to each thread with {@link #acquire(int)}.
+ * The pool opens a new instance when a request has to wait and the number of instances is less than the maximum,
+ * and closes the instance which has been idle longer than the idle timeout, until the number of instances reaches the minimum.<br>
+ * <br>
+ * Note that the instances are shared among the threads,
+ * an application should not change the input information or the properties of the leased instance.
+ */
+public final class SingleShotPool implements AutoCloseable {
+    /**
+     * The default time to keep an idle instance, in milliseconds.
+     */
+    public static final int DEFAULT_IDLE_TIMEOUT = 60000;
+
+    private final SingleShot.Options mOptions;
+    private final int mMinSize;
+    private final int mMaxSize;
+    private final ArrayDeque<IdleInstance> mIdle = new ArrayDeque<>();
+    private int mIdleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private int mTotal = 0;
+    private int mWaiting = 0;
+    private int mLeased = 0;
+    private boolean mClosed = false;
+
+    /* statistics */
+    private long mLeaseCount = 0;
+    private long mTimeoutCount = 0;
+    private int mMaxWaiting = 0;
+    private long mBusyTime = 0;
+    private long mCapacityTime = 0;
+    private long mLastUpdate = getTime();
+
+    /**
+     * Creates a new SingleShotPool instance with the fixed number of instances.
+     *
+     * @param options The {@link SingleShot.Options} object configuring the instances
+     * @param size    The number of instances
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException    if this failed to construct the instances
+     */
+    public SingleShotPool(SingleShot.Options options, int size) {
+        this(options, size, size);
+    }
+
+    /**
+     * Creates a new SingleShotPool instance.
+     * The pool opens the minimum number of instances at once.
+     *
+     * @param options The {@link SingleShot.Options} object configuring the instances
+     * @param minSize The minimum number of instances
+     * @param maxSize The maximum number of instances
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException    if this failed to construct the instances
+     */
+    public SingleShotPool(SingleShot.Options options, int minSize, int maxSize) {
+        if (options == null) {
+            throw new IllegalArgumentException("Given option is invalid");
+        }
+
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Given size is invalid");
+        }
+
+        mOptions = options;
+        mMinSize = minSize;
+        mMaxSize = maxSize;
+
+        try {
+            for (int i = 0; i < minSize; i++) {
+                mIdle.push(new IdleInstance(new SingleShot(options)));
+                mTotal++;
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets an instance from the pool.
+     * This will wait until an instance is available or the timeout expires.
+     * The application should close the returned {@link Lease} to return the instance to the pool.
+     *
+     * @param timeout The time to wait for an instance in milliseconds, 0 to wait without timeout
+     *
+     * @return The {@link Lease} of the instance, or null if the timeout expired
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if the pool is closed or this failed to construct a new instance
+     */
+    public Lease acquire(int timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Given timeout is invalid");
+        }
+
+        SingleShot single = null;
+        ArrayList<SingleShot> expired;
+
+        synchronized (this) {
+            long deadline = getTime() + timeout;
+
+            checkPoolState();
+
+            mWaiting++;
+            if (mMaxWaiting < mWaiting) {
+                mMaxWaiting = mWaiting;
+            }
+
+            try {
+                while (true) {
+                    if (!mIdle.isEmpty()) {
+                        single = mIdle.pop().single;
+                        break;
+                    }
+
+                    if (mTotal < mMaxSize) {
+                        /* the request will wait, open a new instance */
+                        updateCapacity();
+                        mTotal++;
+                        break;
+                    }
+
+                    long remaining = 0;
+
+                    if (timeout > 0) {
+                        remaining = deadline - getTime();
+
+                        if (remaining <= 0) {
+                            mTimeoutCount++;
+                            return null;
+                        }
+                    }
+
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for an instance");
+                    }
+
+                    checkPoolState();
+                }
+            } finally {
+                mWaiting--;
+            }
+
+            mLeased++;
+            mLeaseCount++;
+            expired = trim();
+        }
+
+        closeInstances(expired);
+
+        if (single == null) {
+            try {
+                single = new SingleShot(mOptions);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    updateCapacity();
+                    mTotal--;
+                    mLeased--;
+                    notifyAll();
+                }
+
+                throw e;
+            }
+        }
+
+        return new Lease(single);
+    }
+
+    /**
+     * Invokes the model with an instance in the pool.
+     * This will wait until an instance is available or the timeout expires.
+     *
+     * @param in      The input data to be inferred (a single frame, tensor/tensors)
+     * @param timeout The time to wait for an instance in milliseconds, 0 to wait without timeout
+     *
+     * @return The output data (a single frame, tensor/tensors)
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if this failed to invoke the model or the timeout expired
+     */
+    public TensorsData invoke(TensorsData in, int timeout) {
+        if (in == null) {
+            throw new IllegalArgumentException("Given input data is null");
+        }
+
+        Lease lease = acquire(timeout);
+
+        if (lease == null) {
+            throw new IllegalStateException("Failed to get an instance in time");
+        }
+
+        try {
+            return lease.getSingleShot().invoke(in);
+        } finally {
+            lease.close();
+        }
+    }
+
+    /**
+     * Sets the time to keep an idle instance, in milliseconds.
+     * The instance idle longer than this is closed if the number of instances is larger than the minimum.
+     *
+     * @param timeout The time to keep an idle instance, 0 to close the idle instance immediately
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public void setIdleTimeout(int timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Given timeout is invalid");
+        }
+
+        ArrayList<SingleShot> expired;
+
+        synchronized (this) {
+            mIdleTimeout = timeout;
+            expired = trim();
+        }
+
+        closeInstances(expired);
+    }
+
+    /**
+     * Gets the minimum number of instances.
+     *
+     * @return The minimum number of instances
+     */
+    public int getMinSize() {
+        return mMinSize;
+    }
+
+    /**
+     * Gets the maximum number of instances.
+     *
+     * @return The maximum number of instances
+     */
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Gets the number of instances opened in the pool.
+     *
+     * @return The number of instances
+     */
+    public synchronized int getSize() {
+        return mTotal;
+    }
+
+    /**
+     * Gets the number of instances currently leased.
+     *
+     * @return The number of leased instances
+     */
+    public synchronized int getLeasedCount() {
+        return mLeased;
+    }
+
+    /**
+     * Gets the number of threads currently waiting for an instance.
+     *
+     * @return The number of waiting threads
+     */
+    public synchronized int getWaitingCount() {
+        return mWaiting;
+    }
+
+    /**
+     * Gets the maximum number of threads waited for an instance at the same time, since the statistics were reset.
+     *
+     * @return The maximum number of waiting threads
+     */
+    public synchronized int getMaxWaitingCount() {
+        return mMaxWaiting;
+    }
+
+    /**
+     * Gets the number of leases handed out, since the statistics were reset.
+     *
+     * @return The number of leases
+     */
+    public synchronized long getLeaseCount() {
+        return mLeaseCount;
+    }
+
+    /**
+     * Gets the number of requests which failed to get an instance in time, since the statistics were reset.
+     *
+     * @return The number of timeouts
+     */
+    public synchronized long getTimeoutCount() {
+        return mTimeoutCount;
+    }
+
+    /**
+     * Gets the ratio of the time the instances were leased to the time the instances were opened,
+     * since the statistics were reset. The time of the leases not returned yet is not included.
+     *
+     * @return The utilization of the instances, from 0.0 to 1.0
+     */
+    public synchronized float getUtilization() {
+        updateCapacity();
+
+        if (mCapacityTime == 0) {
+            return 0.0f;
+        }
+
+        return Math.min(1.0f, (float) mBusyTime / mCapacityTime);
+    }
+
+    /**
+     * Resets the statistics of the pool.
+     */
+    public synchronized void resetStatistics() {
+        mLeaseCount = 0;
+        mTimeoutCount = 0;
+        mMaxWaiting = mWaiting;
+        mBusyTime = 0;
+        mCapacityTime = 0;
+        mLastUpdate = getTime();
+    }
+
+    /**
+     * Internal method to return the instance to the pool.
+     */
+    private void release(SingleShot single, long leasedTime) {
+        ArrayList<SingleShot> expired;
+        boolean closeInstance = false;
+
+        synchronized (this) {
+            long now = getTime();
+
+            mLeased--;
+            mBusyTime += now - leasedTime;
+
+            if (mClosed) {
+                mTotal--;
+                closeInstance = true;
+            } else {
+                mIdle.push(new IdleInstance(single));
+                notify();
+            }
+
+            expired = trim();
+        }
+
+        if (closeInstance) {
+            single.close();
+        }
+
+        closeInstances(expired);
+    }
+
+    /**
+     * Internal method to get the idle instances to be closed.
+     * The oldest idle instance is at the end of the queue.
+     */
+    private ArrayList<SingleShot> trim() {
+        ArrayList<SingleShot> expired = null;
+
+        if (mWaiting > 0) {
+            return null;
+        }
+
+        long now = getTime();
+
+        while (mTotal > mMinSize && !mIdle.isEmpty()) {
+            IdleInstance oldest = mIdle.peekLast();
+
+            if (now - oldest.idleSince < mIdleTimeout) {
+                break;
+            }
+
+            if (expired == null) {
+                expired = new ArrayList<>();
+            }
+
+            updateCapacity();
+            mTotal--;
+            expired.add(mIdle.pollLast().single);
+        }
+
+        return expired;
+    }
+
+    /**
+     * Internal method to accumulate the time the instances were opened.
+     */
+    private void updateCapacity() {
+        long now = getTime();
+
+        mCapacityTime += (now - mLastUpdate) * mTotal;
+        mLastUpdate = now;
+    }
+
+    /**
+     * Internal method to get the monotonic time in milliseconds.
+     */
+    private static long getTime() {
+        return System.nanoTime() / 1000000;
+    }
+
+    /**
+     * Internal method to close the instances.
+     */
+    private void closeInstances(ArrayList<SingleShot> list) {
+        if (list != null) {
+            for (SingleShot single : list) {
+                single.close();
+            }
+        }
+    }
+
+    /**
+     * Internal method to check the pool state.
+     *
+     * @throws IllegalStateException if the pool is closed
+     */
+    private void checkPoolState() {
+        if (mClosed) {
+            throw new IllegalStateException("The pool is closed");
+        }
+    }
+
+    /**
+     * Closes the pool and the idle instances.
+     * The leased instances are closed when the leases are returned.
+     */
+    @Override
+    public void close() {
+        ArrayList<SingleShot> list = new ArrayList<>();
+
+        synchronized (this) {
+            mClosed = true;
+
+            while (!mIdle.isEmpty()) {
+                list.add(mIdle.pop().single);
+            }
+
+            updateCapacity();
+            mTotal -= list.size();
+            notifyAll();
+        }
+
+        closeInstances(list);
+    }
+
+    /**
+     * Provides interfaces to access the instance leased from the pool.
+     */
+    public final class Lease implements AutoCloseable {
+        private SingleShot mSingle;
+        private final long mLeasedTime;
+
+        /**
+         * Private constructor with the leased instance.
+         */
+        private Lease(SingleShot single) {
+            mSingle = single;
+            mLeasedTime = getTime();
+        }
+
+        /**
+         * Gets the leased instance.
+         *
+         * @return The {@link SingleShot} instance
+         *
+         * @throws IllegalStateException if the lease is already returned
+         */
+        public synchronized SingleShot getSingleShot() {
+            if (mSingle == null) {
+                throw new IllegalStateException("The lease is already returned");
+            }
+
+            return mSingle;
+        }
+
+        /**
+         * Returns the instance to the pool.
+         */
+        @Override
+        public void close() {
+            SingleShot single;
+
+            synchronized (this) {
+                single = mSingle;
+                mSingle = null;
+            }
+
+            if (single != null) {
+                release(single, mLeasedTime);
+            }
+        }
+    }
+
+    /**
+     * Internal class for the idle instance.
+     */
+    private static class IdleInstance {
+        private final SingleShot single;
+        private final long idleSince;
+
+        private IdleInstance(SingleShot single) {
+            this.single = single;
+            this.idleSince = getTime();
+        }
+    }
+}
@@ -6,27 +6,69 @@
 
 package org.nnsuite.nnstreamer;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Provides interfaces to handle tensor data frame.
  */
 public final class TensorsData implements AutoCloseable {
+    /**
+     * The byte alignment of each tensor in the contiguous tensors data.
+     * The alignment is relative to the start of the contiguous buffer, not the absolute memory address.
+     *
+     * @see #allocate(TensorsInfo, boolean)
+     */
+    public static final int CONTIGUOUS_ALIGNMENT = 64;
+
+    private static final AtomicLong sLastSerial = new AtomicLong();
+
     private TensorsInfo mInfo = null;
+    private boolean mInfoShared = false;
     private ArrayList<ByteBuffer> mDataList = new ArrayList<>();
+    private ArrayList<ByteBuffer> mPooledList = new ArrayList<>();
+    private ByteBuffer mSlab = null;
+    private ByteBuffer mPooledSlab = null;
+    private boolean mContiguous = false;
+    private MemoryTracker.Creator mCreator = MemoryTracker.Creator.APPLICATION;
+    private MemoryTracker.Allocation mAllocation = null;
+    private long mSequenceId = -1;
+    private long mTimestamp = -1;
+    private final long mSerial = sLastSerial.incrementAndGet();
 
     /**
      * Internal method to allocate a new direct byte buffer with the native byte order.
+     * If clear is false, the caller should fill the buffer.
+     *
+     * @see BufferPool
+     */
+    private static ByteBuffer allocateBuffer(int size, boolean clear) {
+        return sliceBuffer(BufferPool.acquire(size, clear));
+    }
+
+    /**
+     * Internal method to get the view of the pooled buffer, the capacity of the view is the requested size.
      */
-    private static ByteBuffer allocateBuffer(int size) {
-        return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+    private static ByteBuffer sliceBuffer(ByteBuffer pooled) {
+        return pooled.slice().order(ByteOrder.nativeOrder());
     }
 
     /**
      * Allocates a new direct byte buffer with the native byte order.
+     * The buffer is drawn from {@link BufferPool} if the pool has a buffer in the size class of given size.
      *
      * @param size The byte size of the buffer
      *
@@ -39,7 +81,7 @@ public final class TensorsData implements AutoCloseable {
             throw new IllegalArgumentException("Given size is invalid");
         }
 
-        return allocateBuffer(size);
+        return allocateBuffer(size, true);
     }
 
     /**
@@ -56,7 +98,7 @@ public final class TensorsData implements AutoCloseable {
             throw new IllegalArgumentException("Given data is invalid");
         }
 
-        return allocateBuffer(bytes.length).put(bytes);
+        return allocateBuffer(bytes.length, false).put(bytes);
     }
 
     /**
@@ -78,6 +120,7 @@ public final class TensorsData implements AutoCloseable {
 
     /**
      * Allocates a new {@link TensorsData} instance with the given tensors information.
+     * The buffers are drawn from {@link BufferPool}, and returned to the pool when closing the instance.
      *
      * @param info The tensors information
      *
@@ -86,24 +129,250 @@ public final class TensorsData implements AutoCloseable {
      * @throws IllegalArgumentException if given tensors information is invalid
      */
     public static TensorsData allocate(TensorsInfo info) {
-        TensorsData data = new TensorsData(info);
+        return allocate(info, MemoryTracker.Creator.APPLICATION, true);
+    }
+
+    /**
+     * Internal method to allocate a new {@link TensorsData} instance for given creator.
+     * If clear is false, the caller should fill the buffers.
+     */
+    private static TensorsData allocate(TensorsInfo info, MemoryTracker.Creator creator, boolean clear) {
+        TensorsData data = new TensorsData(info, creator);
         int count = info.getTensorsCount();
 
         for (int i = 0; i < count; i++) {
             /* If tensor format is flexible, data size would be 0. */
-            data.addTensorData(allocateBuffer(info.getTensorSize(i)));
+            ByteBuffer pooled = BufferPool.acquire(data.mInfo.getTensorSize(i), clear);
+
+            data.addTensorData(sliceBuffer(pooled));
+            data.setOwnedBuffer(i, pooled);
+        }
+
+        return data;
+    }
+
+    /**
+     * Allocates a new {@link TensorsData} instance with the given tensors information.
+     * If contiguous is true, all tensors are sliced from a single direct buffer,
+     * and the offset of each tensor is aligned to {@link #CONTIGUOUS_ALIGNMENT} bytes from the start of the buffer.
+     * Note that only the relative alignment is provided. The start address of the buffer follows the alignment
+     * of direct buffers in the platform (e.g., 8 bytes), so the memory address of each tensor may not be
+     * aligned to {@link #CONTIGUOUS_ALIGNMENT} bytes.
+     * This reduces the number of allocations for the model with many tensors,
+     * and an application can access whole tensors with {@link #getContiguousData()}.
+     *
+     * @param info       The tensors information
+     * @param contiguous True to allocate the tensors in a single buffer
+     *
+     * @return {@link TensorsData} instance
+     *
+     * @throws IllegalArgumentException if given tensors information is invalid
+     */
+    public static TensorsData allocate(TensorsInfo info, boolean contiguous) {
+        if (!contiguous) {
+            return allocate(info);
+        }
+
+        if (info == null || info.getFormat() != NNStreamer.TensorFormat.STATIC) {
+            throw new IllegalArgumentException("Given tensors information is invalid");
+        }
+
+        TensorsData data = new TensorsData(info);
+        TensorsInfo frozen = data.mInfo;
+        int count = frozen.getTensorsCount();
+        int last = count - 1;
+
+        ByteBuffer pooled = BufferPool.acquire(frozen.getTensorOffset(last) + TensorsInfo.align(frozen.getTensorSize(last)), true);
+        ByteBuffer slab = sliceBuffer(pooled);
+
+        for (int i = 0; i < count; i++) {
+            int offset = frozen.getTensorOffset(i);
+            ByteBuffer view = slab.duplicate();
+
+            view.position(offset);
+            view.limit(offset + frozen.getTensorSize(i));
+            data.addTensorData(view.slice().order(ByteOrder.nativeOrder()));
         }
 
+        data.mSlab = slab;
+        data.mPooledSlab = pooled;
+        data.mContiguous = true;
+        data.trackBytes(pooled.capacity());
         return data;
     }
 
+    /**
+     * Creates a new {@link TensorsData} instance which maps the region of given file into memory.
+     * The tensors are read from the file in order without padding, starting at given offset.
+     * The data is not copied to the heap, and the mapped buffers can be used as the input of
+     * {@link SingleShot#invoke(TensorsData)} and the source node of a pipeline.<br>
+     * <br>
+     * If readOnly is false, the changes of the tensor data are written to the file,
+     * and the file is extended if the region is larger than the file.
+     * The mapping is valid until the tensors data is released by GC, even if the file is closed.
+     *
+     * @param info     The tensors information
+     * @param file     The file which contains the tensors
+     * @param offset   The byte offset of the first tensor in the file
+     * @param readOnly True to map the file in read-only mode
+     *
+     * @return {@link TensorsData} instance
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to map the file
+     */
+    public static TensorsData map(TensorsInfo info, File file, long offset, boolean readOnly) {
+        if (file == null || !file.isFile()) {
+            throw new IllegalArgumentException("Given file is invalid");
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, readOnly ? "r" : "rw")) {
+            return map(info, raf.getChannel(), offset, readOnly);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to map the file " + file.getName());
+        }
+    }
+
+    /**
+     * Creates a new {@link TensorsData} instance which maps the region of given file channel into memory.
+     * The channel should be opened for reading, and also for writing if readOnly is false.
+     *
+     * @param info     The tensors information
+     * @param channel  The file channel which contains the tensors
+     * @param offset   The byte offset of the first tensor in the file
+     * @param readOnly True to map the file in read-only mode
+     *
+     * @return {@link TensorsData} instance
+     *
+     * @throws IllegalArgumentException if given param is invalid
+     * @throws IllegalStateException if failed to map the file
+     *
+     * @see #map(TensorsInfo, File, long, boolean)
+     */
+    public static TensorsData map(TensorsInfo info, FileChannel channel, long offset, boolean readOnly) {
+        if (info == null || info.getFormat() != NNStreamer.TensorFormat.STATIC) {
+            throw new IllegalArgumentException("Given tensors information is invalid");
+        }
+
+        if (channel == null) {
+            throw new IllegalArgumentException("Given file channel is null");
+        }
+
+        if (offset < 0) {
+            throw new IllegalArgumentException("Given offset is invalid");
+        }
+
+        TensorsData data = new TensorsData(info);
+        TensorsInfo frozen = data.mInfo;
+        int count = frozen.getTensorsCount();
+        long total = 0;
+
+        for (int i = 0; i < count; i++) {
+            total += frozen.getTensorSize(i);
+        }
+
+        MappedByteBuffer mapped;
+
+        try {
+            if (readOnly && offset + total > channel.size()) {
+                throw new IllegalArgumentException("Given offset is invalid");
+            }
+
+            mapped = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                    offset, total);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to map the file");
+        }
+
+        int position = 0;
+
+        for (int i = 0; i < count; i++) {
+            int size = frozen.getTensorSize(i);
+            ByteBuffer view = mapped.duplicate();
+
+            view.position(position);
+            view.limit(position + size);
+            data.addTensorData(view.slice().order(ByteOrder.nativeOrder()));
+            position += size;
+        }
+
+        return data;
+    }
+
+    /**
+     * Internal method called from native to allocate a new data with the tensors information created in native.
+     * The tensors information is frozen and shared with new data.
+     * The type of the pipeline in native is used to track the memory.
+     */
+    private static TensorsData allocateFromNative(TensorsInfo info, int type) {
+        info.freezeInfo();
+
+        /* native fills the buffers after allocating the data */
+        TensorsData data = allocate(info, MemoryTracker.convertCreator(type), false);
+
+        /* an application may change the information, return a cloned info */
+        data.mInfoShared = false;
+        return data;
+    }
+
+    /**
+     * Internal method called from native to create a new data with the buffers which wrap the memory in native.
+     * The memory is valid only while the native caller is running, the caller should close the data before returning.
+     * If readOnly is true, the buffers are read-only because the memory may be shared with other elements in the pipeline.
+     */
+    private static TensorsData wrapFromNative(TensorsInfo info, ByteBuffer[] buffers, int type, boolean readOnly) {
+        info.freezeInfo();
+
+        TensorsData data = new TensorsData(info, MemoryTracker.convertCreator(type));
+
+        for (ByteBuffer buffer : buffers) {
+            ByteBuffer wrapped = readOnly ? buffer.asReadOnlyBuffer() : buffer;
+
+            /* the buffer created in native is big-endian */
+            data.addTensorData(wrapped.order(ByteOrder.nativeOrder()));
+        }
+
+        data.mInfoShared = false;
+        return data;
+    }
+
+    /**
+     * Gets the single buffer which contains all tensors, including the padding bytes between the tensors.
+     * This is available only if the tensors data is allocated with {@link #allocate(TensorsInfo, boolean)}
+     * and no tensor is replaced with {@link #setTensorData(int, ByteBuffer)}.
+     *
+     * @return The byte buffer of the tensors, or null if the tensors are not contiguous
+     */
+    public ByteBuffer getContiguousData() {
+        if (!mContiguous) {
+            return null;
+        }
+
+        ByteBuffer view = mSlab.duplicate();
+
+        /* duplicated buffer is always big-endian */
+        view.order(ByteOrder.nativeOrder());
+        view.clear();
+        return view;
+    }
+
     /**
      * Gets the tensors information.
+     * If the data is allocated with the frozen tensors information, this returns the frozen instance without cloning.
+     *
+     * @return {@link TensorsInfo} instance cloned from current tensors information, or the frozen instance
      *
-     * @return {@link TensorsInfo} instance cloned from current tensors information.
+     * @see TensorsInfo#freeze()
      */
     public TensorsInfo getTensorsInfo() {
-        return mInfo.clone();
+        return mInfoShared ? mInfo : mInfo.clone();
+    }
+
+    /**
+     * Internal method to get the tensors information without cloning, also called from native.
+     */
+    TensorsInfo getInfo() {
+        return mInfo;
     }
 
     /**
@@ -118,7 +387,9 @@ public final class TensorsData implements AutoCloseable {
             throw new IllegalArgumentException("Given tensors information is invalid");
         }
 
-        mInfo = info.clone();
+        /* share the frozen info, or keep the frozen copy to get the tensor size without computation */
+        mInfoShared = info.isFrozen();
+        mInfo = info.freeze();
     }
 
     /**
@@ -143,6 +414,7 @@ public final class TensorsData implements AutoCloseable {
 
         checkByteBuffer(index, data);
         mDataList.add(data);
+        mPooledList.add(null);
     }
 
     /**
@@ -159,6 +431,118 @@ public final class TensorsData implements AutoCloseable {
         return mDataList.get(index);
     }
 
+    /**
+     * Gets a tensor data of given index as a float buffer.
+     * The returned buffer is a view of the tensor data with the native byte order, not a copy.
+     *
+     * @param index The index of the tensor in the list
+     *
+     * @return The float buffer of the tensor data
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     * @throws IllegalStateException if the tensor type is not float32
+     */
+    public FloatBuffer getFloatTensor(int index) {
+        return getTensorView(index, NNStreamer.TensorType.FLOAT32, null).asFloatBuffer();
+    }
+
+    /**
+     * Gets a tensor data of given index as a double buffer.
+     * The returned buffer is a view of the tensor data with the native byte order, not a copy.
+     *
+     * @param index The index of the tensor in the list
+     *
+     * @return The double buffer of the tensor data
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     * @throws IllegalStateException if the tensor type is not float64
+     */
+    public DoubleBuffer getDoubleTensor(int index) {
+        return getTensorView(index, NNStreamer.TensorType.FLOAT64, null).asDoubleBuffer();
+    }
+
+    /**
+     * Gets a tensor data of given index as an int buffer.
+     * The returned buffer is a view of the tensor data with the native byte order, not a copy.
+     *
+     * @param index The index of the tensor in the list
+     *
+     * @return The int buffer of the tensor data
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     * @throws IllegalStateException if the tensor type is not int32 or uint32
+     */
+    public IntBuffer getIntTensor(int index) {
+        return getTensorView(index, NNStreamer.TensorType.INT32, NNStreamer.TensorType.UINT32).asIntBuffer();
+    }
+
+    /**
+     * Gets a tensor data of given index as a short buffer.
+     * The returned buffer is a view of the tensor data with the native byte order, not a copy.
+     *
+     * @param index The index of the tensor in the list
+     *
+     * @return The short buffer of the tensor data
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     * @throws IllegalStateException if the tensor type is not int16 or uint16
+     */
+    public ShortBuffer getShortTensor(int index) {
+        return getTensorView(index, NNStreamer.TensorType.INT16, NNStreamer.TensorType.UINT16).asShortBuffer();
+    }
+
+    /**
+     * Gets a tensor data of given index as a long buffer.
+     * The returned buffer is a view of the tensor data with the native byte order, not a copy.
+     *
+     * @param index The index of the tensor in the list
+     *
+     * @return The long buffer of the tensor data
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     * @throws IllegalStateException if the tensor type is not int64 or uint64
+     */
+    public LongBuffer getLongTensor(int index) {
+        return getTensorView(index, NNStreamer.TensorType.INT64, NNStreamer.TensorType.UINT64).asLongBuffer();
+    }
+
+    /**
+     * Gets the element index in the typed buffer of given tensor, with the position in each dimension.
+     * The position should be given in the same order as the tensor dimension (the innermost dimension first).
+     * For example, the value at (c, x, y) of the tensor with dimension 3:224:224 is
+     * {@code getFloatTensor(0).get(getElementIndex(0, c, x, y))}.
+     *
+     * @param index    The index of the tensor in the list
+     * @param position The position in each dimension
+     *
+     * @return The element index in the typed buffer
+     *
+     * @throws IndexOutOfBoundsException if the given index or position is invalid
+     * @throws IllegalArgumentException if given param is invalid
+     */
+    public int getElementIndex(int index, int... position) {
+        checkIndexBounds(index);
+
+        int[] dimension = mInfo.getDimensionInternal(index);
+        int[] strides = mInfo.getStridesInternal(index);
+
+        if (position == null || position.length != dimension.length) {
+            throw new IllegalArgumentException("Given position is invalid, the rank of the tensor is " + dimension.length);
+        }
+
+        int element = 0;
+
+        for (int i = 0; i < position.length; i++) {
+            if (position[i] < 0 || position[i] >= dimension[i]) {
+                throw new IndexOutOfBoundsException("Invalid position [" + position[i] + "] in the dimension " + i);
+            }
+
+            element += position[i] * strides[i];
+        }
+
+        return element;
+    }
+
     /**
      * Sets a tensor data.
      *
@@ -172,7 +556,49 @@ public final class TensorsData implements AutoCloseable {
         checkIndexBounds(index);
         checkByteBuffer(index, data);
 
+        ByteBuffer owned = mPooledList.get(index);
+
+        /* an application may set the buffer of this instance again */
+        if (mDataList.get(index) == data) {
+            return;
+        }
+
+        /* the replaced buffer may be referred by an application, do not return it to the pool */
+        if (owned != null) {
+            mPooledList.set(index, null);
+            untrackBytes(owned.capacity());
+        }
+
         mDataList.set(index, data);
+        mContiguous = false;
+    }
+
+    /**
+     * Gets the sequence ID of the frame.
+     * The data received from the sink node of a pipeline has the sequence ID,
+     * if the frame was stamped when it was pushed to the source node.
+     *
+     * @return The sequence ID, or -1 if the frame is not stamped
+     */
+    public long getSequenceId() {
+        return mSequenceId;
+    }
+
+    /**
+     * Gets the time when the frame was stamped in the source node of a pipeline.
+     *
+     * @return The monotonic time in nanoseconds (see {@link System#nanoTime()}), or -1 if the frame is not stamped
+     */
+    public long getTimestamp() {
+        return mTimestamp;
+    }
+
+    /**
+     * Internal method to set the sequence ID and timestamp of the frame.
+     */
+    void setStamp(long sequenceId, long timestamp) {
+        mSequenceId = sequenceId;
+        mTimestamp = timestamp;
     }
 
     /**
@@ -188,7 +614,78 @@ public final class TensorsData implements AutoCloseable {
     private void updateData(int index, int size) {
         checkIndexBounds(index);
 
-        mDataList.set(index, allocateByteBuffer(size));
+        /* native fills the buffer after reallocating it */
+        ByteBuffer pooled = BufferPool.acquire(size, false);
+
+        releaseBuffer(index);
+        mDataList.set(index, sliceBuffer(pooled));
+        setOwnedBuffer(index, pooled);
+        mContiguous = false;
+    }
+
+    /**
+     * Internal method to return the buffer allocated by this instance to the pool.
+     */
+    private void releaseBuffer(int index) {
+        ByteBuffer pooled = mPooledList.get(index);
+
+        if (pooled != null) {
+            mPooledList.set(index, null);
+            untrackBytes(pooled.capacity());
+            BufferPool.release(pooled);
+        }
+    }
+
+    /**
+     * Internal method to set the buffer allocated by this instance.
+     */
+    private void setOwnedBuffer(int index, ByteBuffer buffer) {
+        mPooledList.set(index, buffer);
+        trackBytes(buffer.capacity());
+    }
+
+    /**
+     * Internal method to add the byte size of allocated buffer to {@link MemoryTracker}.
+     */
+    private void trackBytes(long bytes) {
+        if (mAllocation == null) {
+            mAllocation = MemoryTracker.register(this, mCreator);
+        }
+
+        mAllocation.add(bytes);
+    }
+
+    /**
+     * Internal method to subtract the byte size of released buffer from {@link MemoryTracker}.
+     */
+    private void untrackBytes(long bytes) {
+        if (mAllocation != null && mAllocation.subtract(bytes) == 0) {
+            MemoryTracker.unregister(mAllocation);
+            mAllocation = null;
+        }
+    }
+
+    /**
+     * Internal method to get the view of tensor data with the native byte order, after checking the tensor type.
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     * @throws IllegalStateException if the tensor type is not matched
+     */
+    private ByteBuffer getTensorView(int index, NNStreamer.TensorType type, NNStreamer.TensorType unsignedType) {
+        checkIndexBounds(index);
+
+        NNStreamer.TensorType current = mInfo.getTensorType(index);
+
+        if (current != type && current != unsignedType) {
+            throw new IllegalStateException("The tensor type is " + current.name());
+        }
+
+        ByteBuffer view = mDataList.get(index).duplicate();
+
+        /* duplicated buffer is always big-endian */
+        view.order(ByteOrder.nativeOrder());
+        view.clear();
+        return view;
     }
 
     /**
@@ -247,8 +744,25 @@ public final class TensorsData implements AutoCloseable {
         }
     }
 
+    /**
+     * Closes the tensors data and returns the buffers allocated by this instance to {@link BufferPool}.
+     * The buffers given by an application with {@link #setTensorData(int, ByteBuffer)} are not pooled.
+     */
     @Override
     public void close() {
+        for (int i = 0; i < mPooledList.size(); i++) {
+            releaseBuffer(i);
+        }
+
+        if (mPooledSlab != null) {
+            untrackBytes(mPooledSlab.capacity());
+            BufferPool.release(mPooledSlab);
+            mPooledSlab = null;
+            mSlab = null;
+            mContiguous = false;
+        }
+
+        mPooledList.clear();
         mDataList.clear();
         mInfo = null;
     }
@@ -257,6 +771,29 @@ public final class TensorsData implements AutoCloseable {
      * Private constructor to prevent the instantiation.
      */
     private TensorsData(TensorsInfo info) {
+        this(info, MemoryTracker.Creator.APPLICATION);
+    }
+
+    /**
+     * Internal method to get the serial number of the last created data.
+     * The data created after calling this method has greater serial number.
+     */
+    static long getLastSerial() {
+        return sLastSerial.get();
+    }
+
+    /**
+     * Internal method to check the data is created after given serial number.
+     */
+    boolean isCreatedAfter(long serial) {
+        return mSerial > serial;
+    }
+
+    /**
+     * Private constructor with the creator to track the memory.
+     */
+    private TensorsData(TensorsInfo info, MemoryTracker.Creator creator) {
         setTensorsInfo(info);
+        mCreator = creator;
     }
 }
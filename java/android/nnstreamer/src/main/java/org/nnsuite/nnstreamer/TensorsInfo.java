@@ -8,9 +8,13 @@ package org.nnsuite.nnstreamer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Objects;
 
 /**
- * Provides interfaces to handle tensors information.
+ * Provides interfaces to handle tensors information.<br>
+ * <br>
+ * The frozen tensors information created with {@link #freeze()} is immutable,
+ * and can be shared without cloning. It keeps precomputed byte sizes, element counts, strides and offsets of the tensors.
  *
  * @see NNStreamer#TENSOR_RANK_LIMIT
  * @see NNStreamer#TENSOR_SIZE_LIMIT
@@ -21,6 +25,17 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
     private ArrayList<TensorInfo> mInfoList = new ArrayList<>();
     private NNStreamer.TensorFormat mFormat;
 
+    /* precomputed values of frozen info, published to other threads with the volatile flag */
+    private volatile boolean mFrozen = false;
+    private volatile TensorsInfo mFrozenClone = null;
+    private Object[] mInfoArray;
+    private int[] mSizes;
+    private int[] mElementCounts;
+    private int[] mOffsets;
+    private int[][] mDimensions;
+    private int[][] mStrides;
+    private int mHashCode;
+
     /**
      * Creates a new {@link TensorsInfo} instance.
      * Default tensor format is static.
@@ -68,6 +83,7 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
 
     /**
      * Creates a new {@link TensorsInfo} instance cloned from the current tensors information.
+     * The cloned instance is not frozen.
      *
      * @return {@link TensorsInfo} instance
      */
@@ -82,6 +98,47 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
         return cloned;
     }
 
+    /**
+     * Gets the frozen tensors information.
+     * If this is not frozen, creates a new frozen instance cloned from the current tensors information,
+     * and returns the same instance until the current tensors information is changed.
+     * The frozen instance cannot be changed, and {@link TensorsData} shares it without cloning.
+     *
+     * @return The frozen {@link TensorsInfo} instance
+     *
+     * @throws IllegalStateException if tensors info is empty
+     */
+    public TensorsInfo freeze() {
+        if (mFrozen) {
+            return this;
+        }
+
+        TensorsInfo frozen = mFrozenClone;
+
+        if (frozen != null) {
+            return frozen;
+        }
+
+        if (getTensorsCount() == 0) {
+            throw new IllegalStateException("Empty tensor info");
+        }
+
+        frozen = clone();
+        frozen.freezeInfo();
+
+        mFrozenClone = frozen;
+        return frozen;
+    }
+
+    /**
+     * Checks whether the tensors information is frozen.
+     *
+     * @return true if the tensors information cannot be changed
+     */
+    public boolean isFrozen() {
+        return mFrozen;
+    }
+
     /**
      * Gets the format of tensors information.
      *
@@ -109,6 +166,7 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
      *
      * @throws IndexOutOfBoundsException when the maximum number of tensors in the list
      * @throws IllegalArgumentException if given param is null or invalid
+     * @throws IllegalStateException if the tensors information is frozen
      */
     public void addTensorInfo(NNStreamer.TensorType type, int[] dimension) {
         addTensorInfo(null, type, dimension);
@@ -123,8 +181,11 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
      *
      * @throws IndexOutOfBoundsException when the maximum number of tensors in the list
      * @throws IllegalArgumentException if given param is null or invalid
+     * @throws IllegalStateException if the tensors information is frozen
      */
     public void addTensorInfo(String name, NNStreamer.TensorType type, int[] dimension) {
+        checkFrozen();
+
         int index = getTensorsCount();
 
         if (index >= NNStreamer.TENSOR_SIZE_LIMIT) {
@@ -141,8 +202,10 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
      * @param name  The tensor name
      *
      * @throws IndexOutOfBoundsException if the given index is invalid
+     * @throws IllegalStateException if the tensors information is frozen
      */
     public void setTensorName(int index, String name) {
+        checkFrozen();
         checkIndexBounds(index);
         mInfoList.get(index).setName(name);
     }
@@ -169,8 +232,10 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
      *
      * @throws IndexOutOfBoundsException if the given index is invalid
      * @throws IllegalArgumentException if the given type is unknown or unsupported type
+     * @throws IllegalStateException if the tensors information is frozen
      */
     public void setTensorType(int index, NNStreamer.TensorType type) {
+        checkFrozen();
         checkIndexBounds(index);
         mInfoList.get(index).setType(type);
     }
@@ -197,8 +262,10 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
      *
      * @throws IndexOutOfBoundsException if the given index is invalid
      * @throws IllegalArgumentException if the given dimension is null or invalid
+     * @throws IllegalStateException if the tensors information is frozen
      */
     public void setTensorDimension(int index, int[] dimension) {
+        checkFrozen();
         checkIndexBounds(index);
         mInfoList.get(index).setDimension(dimension);
     }
@@ -217,6 +284,101 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
         return mInfoList.get(index).getDimension();
     }
 
+    /**
+     * Gets the strides of given tensor, in the number of elements.
+     * The stride of each dimension is the number of elements to skip to the next index in the dimension,
+     * in the same order as the tensor dimension (the innermost dimension first).
+     *
+     * @param index The index of the tensor information in the list
+     *
+     * @return The tensor strides
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     */
+    public int[] getTensorStrides(int index) {
+        checkIndexBounds(index);
+
+        if (mFrozen) {
+            return mStrides[index].clone();
+        }
+
+        return mInfoList.get(index).getStrides();
+    }
+
+    /**
+     * Gets the number of elements in given tensor.
+     *
+     * @param index The index of the tensor information in the list
+     *
+     * @return The number of elements
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     */
+    public int getTensorElementCount(int index) {
+        checkIndexBounds(index);
+
+        if (mFrozen) {
+            return mElementCounts[index];
+        }
+
+        return mInfoList.get(index).getElementCount();
+    }
+
+    /**
+     * Gets the byte offset of given tensor in the contiguous tensors data.
+     * The offset of each tensor is aligned to {@link TensorsData#CONTIGUOUS_ALIGNMENT} bytes
+     * from the start of the contiguous tensors data.
+     *
+     * @param index The index of the tensor information in the list
+     *
+     * @return The byte offset of tensor
+     *
+     * @throws IndexOutOfBoundsException if the given index is invalid
+     * @throws IllegalStateException if data type or dimension is invalid
+     *
+     * @see TensorsData#allocate(TensorsInfo, boolean)
+     */
+    public int getTensorOffset(int index) {
+        checkIndexBounds(index);
+
+        if (mFrozen) {
+            return mOffsets[index];
+        }
+
+        int offset = 0;
+
+        for (int i = 0; i < index; i++) {
+            offset += align(getTensorSize(i));
+        }
+
+        return offset;
+    }
+
+    /**
+     * Internal method to get the byte size aligned to {@link TensorsData#CONTIGUOUS_ALIGNMENT}.
+     */
+    static int align(int size) {
+        int alignment = TensorsData.CONTIGUOUS_ALIGNMENT;
+
+        return (size + alignment - 1) / alignment * alignment;
+    }
+
+    /**
+     * Internal method to get the tensor dimension without copying the array if the information is frozen.
+     * The caller should not change the returned array.
+     */
+    int[] getDimensionInternal(int index) {
+        return mFrozen ? mDimensions[index] : getTensorDimension(index);
+    }
+
+    /**
+     * Internal method to get the tensor strides without copying the array if the information is frozen.
+     * The caller should not change the returned array.
+     */
+    int[] getStridesInternal(int index) {
+        return mFrozen ? mStrides[index] : getTensorStrides(index);
+    }
+
     /**
      * Calculates the byte size of tensor data.
      *
@@ -230,6 +392,10 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
     public int getTensorSize(int index) {
         checkIndexBounds(index);
 
+        if (mFrozen) {
+            return mSizes[index];
+        }
+
         int size = mInfoList.get(index).getSize();
 
         /* The tensor size should be a positive value if data format is static. */
@@ -253,7 +419,98 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
      * Internal method called from native to get the array of tensor info.
      */
     private Object[] getInfoArray() {
-        return mInfoList.toArray();
+        return mFrozen ? mInfoArray : mInfoList.toArray();
+    }
+
+    /**
+     * Internal method to freeze the tensors information and precompute the values.
+     *
+     * @throws IllegalStateException if data type or dimension is invalid
+     */
+    synchronized void freezeInfo() {
+        if (mFrozen) {
+            return;
+        }
+
+        int count = getTensorsCount();
+        int offset = 0;
+
+        mSizes = new int[count];
+        mElementCounts = new int[count];
+        mOffsets = new int[count];
+        mDimensions = new int[count][];
+        mStrides = new int[count][];
+
+        for (int i = 0; i < count; i++) {
+            TensorInfo info = mInfoList.get(i);
+
+            mSizes[i] = getTensorSize(i);
+            mElementCounts[i] = info.getElementCount();
+            mOffsets[i] = offset;
+            mDimensions[i] = info.getDimension();
+            mStrides[i] = info.getStrides();
+
+            offset += align(mSizes[i]);
+        }
+
+        mInfoArray = mInfoList.toArray();
+        mHashCode = computeHashCode();
+        mFrozen = true;
+    }
+
+    /**
+     * Internal method to check the tensors information can be changed.
+     * The cached frozen instance is dropped because the tensors information will be changed.
+     *
+     * @throws IllegalStateException if the tensors information is frozen
+     */
+    private void checkFrozen() {
+        if (mFrozen) {
+            throw new IllegalStateException("The tensors information is frozen");
+        }
+
+        mFrozenClone = null;
+    }
+
+    /**
+     * Internal method to compute the hash code.
+     */
+    private int computeHashCode() {
+        int hash = mFormat.hashCode();
+
+        for (TensorInfo info : mInfoList) {
+            hash = 31 * hash + info.hashCode();
+        }
+
+        return hash;
+    }
+
+    /**
+     * Compares the format and the information of each tensor.
+     * The frozen information is equal to the information which is not frozen with the same values.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof TensorsInfo)) {
+            return false;
+        }
+
+        TensorsInfo other = (TensorsInfo) obj;
+
+        if (mFrozen && other.mFrozen && mHashCode != other.mHashCode) {
+            return false;
+        }
+
+        return mFormat == other.mFormat && mInfoList.equals(other.mInfoList);
+    }
+
+    @Override
+    public int hashCode() {
+        return mFrozen ? mHashCode : computeHashCode();
     }
 
     /**
@@ -295,9 +552,15 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
         }
     }
 
+    /**
+     * Clears the tensors information. The frozen information is not changed.
+     */
     @Override
     public void close() {
-        mInfoList.clear();
+        if (!mFrozen) {
+            mInfoList.clear();
+            mFrozenClone = null;
+        }
     }
 
     /**
@@ -383,6 +646,31 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
             return Arrays.copyOf(this.dimension, rank);
         }
 
+        public int getElementCount() {
+            int rank = getRank(this.dimension);
+            int count = (rank == 0) ? 0 : 1;
+
+            for (int i = 0; i < rank; i++) {
+                count *= this.dimension[i];
+            }
+
+            return count;
+        }
+
+        public int[] getStrides() {
+            int[] strides = getDimension();
+            int stride = 1;
+
+            for (int i = 0; i < strides.length; i++) {
+                int dim = strides[i];
+
+                strides[i] = stride;
+                stride *= dim;
+            }
+
+            return strides;
+        }
+
         public int getSize() {
             int size;
 
@@ -423,6 +711,27 @@ public final class TensorsInfo implements AutoCloseable, Cloneable {
             return size;
         }
 
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof TensorInfo)) {
+                return false;
+            }
+
+            TensorInfo other = (TensorInfo) obj;
+
+            return this.type == other.type && Objects.equals(this.name, other.name) &&
+                    Arrays.equals(this.dimension, other.dimension);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Objects.hashCode(this.name) + this.type) + Arrays.hashCode(this.dimension);
+        }
+
         /**
          * Gets the tensor type from int value.
          */
@@ -125,14 +125,21 @@ nns_construct_tensors_data_cls_info (JNIEnv * env,
 
   info->mid_init = (*env)->GetMethodID (env, info->cls, "<init>",
       "(L" NNS_CLS_TINFO ";)V");
-  info->mid_alloc = (*env)->GetStaticMethodID (env, info->cls, "allocate",
-      "(L" NNS_CLS_TINFO ";)L" NNS_CLS_TDATA ";");
+  info->mid_alloc = (*env)->GetStaticMethodID (env, info->cls,
+      "allocateFromNative", "(L" NNS_CLS_TINFO ";I)L" NNS_CLS_TDATA ";");
   info->mid_get_array = (*env)->GetMethodID (env, info->cls, "getDataArray",
       "()[Ljava/lang/Object;");
-  info->mid_get_info = (*env)->GetMethodID (env, info->cls, "getTensorsInfo",
+  info->mid_get_info = (*env)->GetMethodID (env, info->cls, "getInfo",
       "()L" NNS_CLS_TINFO ";");
   info->mid_update_data = (*env)->GetMethodID (env, info->cls, "updateData",
       "(II)V");
+  info->mid_wrap = (*env)->GetStaticMethodID (env, info->cls,
+      "wrapFromNative", "(L" NNS_CLS_TINFO ";[Ljava/nio/ByteBuffer;IZ)L"
+      NNS_CLS_TDATA ";");
+
+  cls = (*env)->FindClass (env, "java/nio/ByteBuffer");
+  info->cls_buffer = (*env)->NewGlobalRef (env, cls);
+  (*env)->DeleteLocalRef (env, cls);
 }
 
 /**
@@ -144,6 +151,8 @@ nns_destroy_tensors_data_cls_info (JNIEnv * env,
 {
   if (info->cls)
     (*env)->DeleteGlobalRef (env, info->cls);
+  if (info->cls_buffer)
+    (*env)->DeleteGlobalRef (env, info->cls_buffer);
 }
 
 /**
@@ -392,7 +401,7 @@ nns_create_tensors_data_object (pipeline_info_s * pipe_info, JNIEnv * env,
   *result = NULL;
 
   obj_data = (*env)->CallStaticObjectMethod (env, tensors_data_cls->cls,
-      tensors_data_cls->mid_alloc, obj_info);
+      tensors_data_cls->mid_alloc, obj_info, (jint) pipe_info->pipeline_type);
   if ((*env)->ExceptionCheck (env) || !obj_data) {
     _ml_loge ("Failed to allocate object for tensors data.");
     (*env)->ExceptionClear (env);
@@ -487,6 +496,76 @@ nns_convert_tensors_data (pipeline_info_s * pipe_info, JNIEnv * env,
   return TRUE;
 }
 
+/**
+ * @brief Create TensorsData object which wraps the memory of tensors data without copying it.
+ * @note The memory should be valid until the result object is closed. Caller should unref the result object.
+ * If read_only is true, the buffers of the result object cannot be changed (e.g., the memory shared with other elements).
+ */
+gboolean
+nns_wrap_tensors_data (pipeline_info_s * pipe_info, JNIEnv * env,
+    ml_tensors_data_h data_h, jobject obj_info, gboolean read_only,
+    jobject * result)
+{
+  guint i;
+  tensors_data_class_info_s *tensors_data_cls;
+  ml_tensors_data_s *data;
+  jobjectArray data_arr;
+  jobject obj_data = NULL;
+  gboolean failed = FALSE;
+
+  g_return_val_if_fail (pipe_info, FALSE);
+  g_return_val_if_fail (env, FALSE);
+  g_return_val_if_fail (data_h, FALSE);
+  g_return_val_if_fail (result, FALSE);
+  g_return_val_if_fail (obj_info, FALSE);
+
+  tensors_data_cls = &pipe_info->tensors_data_cls_info;
+  data = (ml_tensors_data_s *) data_h;
+  *result = NULL;
+
+  data_arr = (*env)->NewObjectArray (env, data->num_tensors,
+      tensors_data_cls->cls_buffer, NULL);
+  if (data_arr == NULL) {
+    _ml_loge ("Failed to create the array of tensor data.");
+    return FALSE;
+  }
+
+  for (i = 0; i < data->num_tensors; i++) {
+    jobject tensor = (*env)->NewDirectByteBuffer (env, data->tensors[i].data,
+        (jlong) data->tensors[i].size);
+
+    if (tensor == NULL) {
+      _ml_loge ("Failed to wrap data[%u] with size %zd.", i,
+          data->tensors[i].size);
+      failed = TRUE;
+      goto done;
+    }
+
+    (*env)->SetObjectArrayElement (env, data_arr, i, tensor);
+    (*env)->DeleteLocalRef (env, tensor);
+  }
+
+  obj_data = (*env)->CallStaticObjectMethod (env, tensors_data_cls->cls,
+      tensors_data_cls->mid_wrap, obj_info, data_arr,
+      (jint) pipe_info->pipeline_type, (jboolean) read_only);
+  if ((*env)->ExceptionCheck (env) || !obj_data) {
+    _ml_loge ("Failed to create object for tensors data.");
+    (*env)->ExceptionClear (env);
+
+    if (obj_data)
+      (*env)->DeleteLocalRef (env, obj_data);
+
+    failed = TRUE;
+    goto done;
+  }
+
+  *result = obj_data;
+
+done:
+  (*env)->DeleteLocalRef (env, data_arr);
+  return !failed;
+}
+
 /**
  * @brief Parse tensors data from TensorsData object.
  */
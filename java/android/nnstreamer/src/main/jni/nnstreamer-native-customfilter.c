@@ -10,17 +10,74 @@
  * @bug		No known bugs except for NYI items
  */
 
+#include <time.h>
+
 #include "nnstreamer-native-internal.h"
 
+/**
+ * @brief The number of buckets in the histogram of custom-filter execution time.
+ */
+#define NNS_CUSTOM_HISTOGRAM_SIZE (32)
+
+/**
+ * @brief Histogram of execution time in nanoseconds.
+ * @note The bucket N (N > 0) counts the time from 2^(N-1) to 2^N - 1, and the last bucket counts all longer time.
+ */
+typedef struct
+{
+  guint64 total;
+  guint64 max;
+  guint64 buckets[NNS_CUSTOM_HISTOGRAM_SIZE];
+} customfilter_histogram_s;
+
+/**
+ * @brief Statistics of custom-filter execution.
+ */
+typedef struct
+{
+  guint64 invoke_count;
+  guint64 dropped_count;
+  guint64 exception_count;
+  customfilter_histogram_s conversion;
+  customfilter_histogram_s callback;
+} customfilter_stats_s;
+
+/**
+ * @brief Execution time and result of single invocation.
+ */
+typedef struct
+{
+  gint64 conversion_time;
+  gint64 callback_time;
+  gboolean exception;
+} customfilter_invoke_info_s;
+
+/**
+ * @brief Get the monotonic time in nanoseconds, to measure the conversion of small tensors.
+ */
+static gint64
+nns_customfilter_get_time (void)
+{
+  struct timespec ts;
+
+  clock_gettime (CLOCK_MONOTONIC, &ts);
+  return (gint64) ts.tv_sec * G_GINT64_CONSTANT (1000000000) + ts.tv_nsec;
+}
+
 /**
  * @brief Private data for CustomFilter class.
  */
 typedef struct
 {
   jmethodID mid_invoke;
+  jmethodID mid_invoke_in_place;
   ml_tensors_info_h in_info;
   ml_tensors_info_h out_info;
   jobject in_info_obj;
+  jobject out_info_obj;
+  gboolean in_place;
+  GMutex stats_lock;
+  customfilter_stats_s stats;
 } customfilter_priv_data_s;
 
 /**
@@ -35,7 +92,10 @@ nns_customfilter_priv_free (gpointer data, JNIEnv * env)
   ml_tensors_info_destroy (priv->out_info);
   if (priv->in_info_obj)
     (*env)->DeleteGlobalRef (env, priv->in_info_obj);
+  if (priv->out_info_obj)
+    (*env)->DeleteGlobalRef (env, priv->out_info_obj);
 
+  g_mutex_clear (&priv->stats_lock);
   g_free (priv);
 }
 
@@ -68,6 +128,19 @@ nns_customfilter_priv_set_info (pipeline_info_s * pipe_info, JNIEnv * env,
   }
 
   if (!ml_tensors_info_is_equal (out_info, priv->out_info)) {
+    /* set output info object to wrap the output buffer */
+    if (priv->in_place) {
+      if (!nns_convert_tensors_info (pipe_info, env, out_info, &obj_info)) {
+        _ml_loge ("Failed to convert tensors info.");
+        return FALSE;
+      }
+
+      if (priv->out_info_obj)
+        (*env)->DeleteGlobalRef (env, priv->out_info_obj);
+      priv->out_info_obj = (*env)->NewGlobalRef (env, obj_info);
+      (*env)->DeleteLocalRef (env, obj_info);
+    }
+
     _ml_tensors_info_free (priv->out_info);
     ml_tensors_info_clone (priv->out_info, out_info);
   }
@@ -76,28 +149,86 @@ nns_customfilter_priv_set_info (pipeline_info_s * pipe_info, JNIEnv * env,
 }
 
 /**
- * @brief The mandatory callback for custom-filter execution.
+ * @brief The callback for custom-filter execution, Java writes the result into the output buffer directly.
  * @return 0 if OK. 1 to drop input buffer. Negative value if error.
  */
 static int
-nns_customfilter_invoke (const ml_tensors_data_h in, ml_tensors_data_h out,
-    void *user_data)
+nns_customfilter_invoke_in_place (pipeline_info_s * pipe_info, JNIEnv * env,
+    const ml_tensors_data_h in, ml_tensors_data_h out,
+    customfilter_invoke_info_s * info)
 {
-  pipeline_info_s *pipe_info = NULL;
   customfilter_priv_data_s *priv;
-  JNIEnv *env;
   jobject obj_in_data, obj_out_data;
+  jboolean passed;
+  gint64 start;
   int ret = -1;
 
-  /* get pipe info and init */
-  pipe_info = (pipeline_info_s *) user_data;
-  g_return_val_if_fail (pipe_info, -1);
+  obj_in_data = obj_out_data = NULL;
+  priv = (customfilter_priv_data_s *) pipe_info->priv_data;
+  start = nns_customfilter_get_time ();
+
+  /**
+   * Data objects wrap the input and output buffers of the filter.
+   * The buffers are valid until this callback returns, and Java closes the data objects after calling the callback.
+   * The input buffer may be shared with other elements, so the input data is read-only.
+   */
+  if (!nns_wrap_tensors_data (pipe_info, env, in, priv->in_info_obj, TRUE,
+          &obj_in_data)) {
+    _ml_loge ("Failed to wrap input data with data-object.");
+    goto done;
+  }
 
-  env = nns_get_jni_env (pipe_info);
-  g_return_val_if_fail (env, -1);
+  if (!nns_wrap_tensors_data (pipe_info, env, out, priv->out_info_obj, FALSE,
+          &obj_out_data)) {
+    _ml_loge ("Failed to wrap output data with data-object.");
+    goto done;
+  }
+
+  info->conversion_time += nns_customfilter_get_time () - start;
+  start = nns_customfilter_get_time ();
+
+  /* call invoke callback */
+  passed = (*env)->CallBooleanMethod (env, pipe_info->instance,
+      priv->mid_invoke_in_place, obj_in_data, obj_out_data);
+
+  info->callback_time = nns_customfilter_get_time () - start;
+
+  if ((*env)->ExceptionCheck (env)) {
+    _ml_loge ("Failed to call the custom-invoke callback.");
+    (*env)->ExceptionClear (env);
+    info->exception = TRUE;
+    goto done;
+  }
+
+  /* callback finished, or drop current buffer */
+  ret = (passed == JNI_TRUE) ? 0 : 1;
+
+done:
+  if (obj_in_data)
+    (*env)->DeleteLocalRef (env, obj_in_data);
+  if (obj_out_data)
+    (*env)->DeleteLocalRef (env, obj_out_data);
+
+  return ret;
+}
+
+/**
+ * @brief The callback for custom-filter execution, Java returns new data object.
+ * @return 0 if OK. 1 to drop input buffer. Negative value if error.
+ */
+static int
+nns_customfilter_invoke_data (pipeline_info_s * pipe_info, JNIEnv * env,
+    const ml_tensors_data_h in, ml_tensors_data_h out,
+    customfilter_invoke_info_s * info)
+{
+  customfilter_priv_data_s *priv;
+  jobject obj_in_data, obj_out_data;
+  gint64 start;
+  int ret = -1;
 
   obj_in_data = obj_out_data = NULL;
   priv = (customfilter_priv_data_s *) pipe_info->priv_data;
+  start = nns_customfilter_get_time ();
 
   /* convert to data object */
   if (!nns_convert_tensors_data (pipe_info, env, in, priv->in_info_obj,
@@ -106,13 +237,19 @@ nns_customfilter_invoke (const ml_tensors_data_h in, ml_tensors_data_h out,
     goto done;
   }
 
+  info->conversion_time += nns_customfilter_get_time () - start;
+  start = nns_customfilter_get_time ();
+
   /* call invoke callback */
   obj_out_data = (*env)->CallObjectMethod (env, pipe_info->instance,
       priv->mid_invoke, obj_in_data);
 
+  info->callback_time = nns_customfilter_get_time () - start;
+
   if ((*env)->ExceptionCheck (env)) {
     _ml_loge ("Failed to call the custom-invoke callback.");
     (*env)->ExceptionClear (env);
+    info->exception = TRUE;
     goto done;
   }
 
@@ -122,11 +259,15 @@ nns_customfilter_invoke (const ml_tensors_data_h in, ml_tensors_data_h out,
     goto done;
   }
 
+  start = nns_customfilter_get_time ();
+
   if (!nns_parse_tensors_data (pipe_info, env, obj_out_data, TRUE, priv->out_info, &out)) {
     _ml_loge ("Failed to parse output data.");
     goto done;
   }
 
+  info->conversion_time += nns_customfilter_get_time () - start;
+
   /* callback finished */
   ret = 0;
 
@@ -139,12 +280,91 @@ done:
   return ret;
 }
 
+/**
+ * @brief Add the execution time to the histogram.
+ */
+static void
+nns_customfilter_histogram_add (customfilter_histogram_s * hist, gint64 time)
+{
+  guint64 value = (time > 0) ? (guint64) time : 0;
+  guint64 remained = value;
+  guint index = 0;
+
+  while (remained > 0 && index < NNS_CUSTOM_HISTOGRAM_SIZE - 1) {
+    remained >>= 1;
+    index++;
+  }
+
+  hist->buckets[index]++;
+  hist->total += value;
+  if (value > hist->max)
+    hist->max = value;
+}
+
+/**
+ * @brief Update the statistics with the result of single invocation.
+ */
+static void
+nns_customfilter_update_stats (customfilter_priv_data_s * priv, int ret,
+    const customfilter_invoke_info_s * info)
+{
+  customfilter_stats_s *stats = &priv->stats;
+
+  g_mutex_lock (&priv->stats_lock);
+
+  stats->invoke_count++;
+  if (ret == 1)
+    stats->dropped_count++;
+  if (info->exception)
+    stats->exception_count++;
+
+  /* skip the execution time if the filter failed before calling the callback */
+  if (info->callback_time >= 0) {
+    nns_customfilter_histogram_add (&stats->conversion, info->conversion_time);
+    nns_customfilter_histogram_add (&stats->callback, info->callback_time);
+  }
+
+  g_mutex_unlock (&priv->stats_lock);
+}
+
+/**
+ * @brief The mandatory callback for custom-filter execution.
+ * @return 0 if OK. 1 to drop input buffer. Negative value if error.
+ */
+static int
+nns_customfilter_invoke (const ml_tensors_data_h in, ml_tensors_data_h out,
+    void *user_data)
+{
+  pipeline_info_s *pipe_info = NULL;
+  customfilter_priv_data_s *priv;
+  customfilter_invoke_info_s info = { 0, -1, FALSE };
+  JNIEnv *env;
+  int ret;
+
+  /* get pipe info and init */
+  pipe_info = (pipeline_info_s *) user_data;
+  g_return_val_if_fail (pipe_info, -1);
+
+  env = nns_get_jni_env (pipe_info);
+  g_return_val_if_fail (env, -1);
+
+  priv = (customfilter_priv_data_s *) pipe_info->priv_data;
+
+  if (priv->in_place)
+    ret = nns_customfilter_invoke_in_place (pipe_info, env, in, out, &info);
+  else
+    ret = nns_customfilter_invoke_data (pipe_info, env, in, out, &info);
+
+  nns_customfilter_update_stats (priv, ret, &info);
+  return ret;
+}
+
 /**
  * @brief Native method for custom filter.
  */
 static jlong
 nns_native_custom_initialize (JNIEnv * env, jobject thiz, jstring name,
-    jobject in, jobject out)
+    jobject in, jobject out, jboolean in_place)
 {
   pipeline_info_s *pipe_info = NULL;
   customfilter_priv_data_s *priv;
@@ -166,6 +386,10 @@ nns_native_custom_initialize (JNIEnv * env, jobject thiz, jstring name,
   priv = g_new0 (customfilter_priv_data_s, 1);
   priv->mid_invoke = (*env)->GetMethodID (env, pipe_info->cls, "invoke",
       "(L" NNS_CLS_TDATA ";)L" NNS_CLS_TDATA ";");
+  priv->mid_invoke_in_place = (*env)->GetMethodID (env, pipe_info->cls,
+      "invokeInPlace", "(L" NNS_CLS_TDATA ";L" NNS_CLS_TDATA ";)Z");
+  priv->in_place = (in_place == JNI_TRUE);
+  g_mutex_init (&priv->stats_lock);
   ml_tensors_info_create_extended (&priv->in_info);
   ml_tensors_info_create_extended (&priv->out_info);
 
@@ -221,14 +445,79 @@ nns_native_custom_destroy (JNIEnv * env, jobject thiz, jlong handle)
   nns_destroy_pipe_info (pipe_info, env);
 }
 
+/**
+ * @brief Native method for custom filter.
+ */
+static jlongArray
+nns_native_custom_get_statistics (JNIEnv * env, jobject thiz, jlong handle)
+{
+  pipeline_info_s *pipe_info;
+  customfilter_priv_data_s *priv;
+  customfilter_stats_s stats;
+  jlong values[7 + NNS_CUSTOM_HISTOGRAM_SIZE * 2];
+  jlongArray result;
+  guint i;
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+  priv = (customfilter_priv_data_s *) pipe_info->priv_data;
+
+  g_mutex_lock (&priv->stats_lock);
+  stats = priv->stats;
+  g_mutex_unlock (&priv->stats_lock);
+
+  /* counts, total and max time, and the buckets of conversion and callback time */
+  values[0] = (jlong) stats.invoke_count;
+  values[1] = (jlong) stats.dropped_count;
+  values[2] = (jlong) stats.exception_count;
+  values[3] = (jlong) stats.conversion.total;
+  values[4] = (jlong) stats.conversion.max;
+  values[5] = (jlong) stats.callback.total;
+  values[6] = (jlong) stats.callback.max;
+
+  for (i = 0; i < NNS_CUSTOM_HISTOGRAM_SIZE; i++) {
+    values[7 + i] = (jlong) stats.conversion.buckets[i];
+    values[7 + NNS_CUSTOM_HISTOGRAM_SIZE + i] = (jlong) stats.callback.buckets[i];
+  }
+
+  result = (*env)->NewLongArray (env, G_N_ELEMENTS (values));
+  if (result == NULL) {
+    _ml_loge ("Failed to allocate the array for the statistics.");
+    return NULL;
+  }
+
+  (*env)->SetLongArrayRegion (env, result, 0, G_N_ELEMENTS (values), values);
+  return result;
+}
+
+/**
+ * @brief Native method for custom filter.
+ */
+static void
+nns_native_custom_reset_statistics (JNIEnv * env, jobject thiz, jlong handle)
+{
+  pipeline_info_s *pipe_info;
+  customfilter_priv_data_s *priv;
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+  priv = (customfilter_priv_data_s *) pipe_info->priv_data;
+
+  g_mutex_lock (&priv->stats_lock);
+  memset (&priv->stats, 0, sizeof (customfilter_stats_s));
+  g_mutex_unlock (&priv->stats_lock);
+}
+
 /**
  * @brief List of implemented native methods for CustomFilter class.
  */
 static JNINativeMethod native_methods_customfilter[] = {
-  {(char *) "nativeInitialize", (char *) "(Ljava/lang/String;L" NNS_CLS_TINFO ";L" NNS_CLS_TINFO ";)J",
+  {(char *) "nativeInitialize", (char *) "(Ljava/lang/String;L" NNS_CLS_TINFO ";L" NNS_CLS_TINFO ";Z)J",
       (void *) nns_native_custom_initialize},
   {(char *) "nativeDestroy", (char *) "(J)V",
-      (void *) nns_native_custom_destroy}
+      (void *) nns_native_custom_destroy},
+  {(char *) "nativeGetStatistics", (char *) "(J)[J",
+      (void *) nns_native_custom_get_statistics},
+  {(char *) "nativeResetStatistics", (char *) "(J)V",
+      (void *) nns_native_custom_reset_statistics}
 };
 
 /**
@@ -113,6 +113,9 @@ typedef struct
   jmethodID mid_get_array;
   jmethodID mid_get_info;
   jmethodID mid_update_data;
+  jmethodID mid_wrap;
+
+  jclass cls_buffer;
 } tensors_data_class_info_s;
 
 /**
@@ -235,6 +238,12 @@ nns_create_tensors_data_object (pipeline_info_s * pipe_info, JNIEnv * env, jobje
 extern gboolean
 nns_convert_tensors_data (pipeline_info_s * pipe_info, JNIEnv * env, ml_tensors_data_h data_h, jobject obj_info, jobject * result);
 
+/**
+ * @brief Create TensorsData object which wraps the memory of tensors data without copying it.
+ */
+extern gboolean
+nns_wrap_tensors_data (pipeline_info_s * pipe_info, JNIEnv * env, ml_tensors_data_h data_h, jobject obj_info, gboolean read_only, jobject * result);
+
 /**
  * @brief Parse tensors data from TensorsData object.
  */
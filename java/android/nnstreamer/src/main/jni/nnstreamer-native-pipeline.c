@@ -11,6 +11,7 @@
  */
 
 #include "nnstreamer-native-internal.h"
+#include <gst/app/app.h>
 
 #if defined(__ANDROID__)
 #include <android/native_window.h>
@@ -34,8 +35,31 @@ typedef struct
 {
   jmethodID mid_state_cb;
   jmethodID mid_sink_cb;
+  jmethodID mid_transfer_cb;
+  GstCaps *stamp_caps;
 } pipeline_priv_data_s;
 
+/**
+ * @brief Data for the buffer which wraps the memory of TensorsData object.
+ */
+typedef struct
+{
+  pipeline_info_s *pipe_info;
+  jmethodID mid_transfer_cb;
+  jobject request;
+  gint remaining;
+} pipeline_transfer_data_s;
+
+/**
+ * @brief The status of pushing data without blocking. This should be matched with Pipeline.InputStatus.
+ */
+typedef enum
+{
+  NNS_PIPE_INPUT_ACCEPTED = 0,
+  NNS_PIPE_INPUT_QUEUE_FULL,
+  NNS_PIPE_INPUT_NOT_PLAYING
+} nns_pipe_input_status_e;
+
 /**
  * @brief Private data for sink node.
  */
@@ -43,6 +67,12 @@ typedef struct
 {
   ml_tensors_info_h out_info;
   jobject out_info_obj;
+  gboolean zero_copy;
+  GstPad *sink_pad;
+  gulong probe_id;
+  GstCaps *stamp_caps;
+  guint64 sequence;
+  guint64 timestamp;
 } pipeline_sink_priv_data_s;
 
 #if defined(__ANDROID__)
@@ -81,7 +111,9 @@ nns_pipeline_priv_free (gpointer data, JNIEnv * env)
 {
   pipeline_priv_data_s *priv = (pipeline_priv_data_s *) data;
 
-  /* nothing to free */
+  if (priv->stamp_caps)
+    gst_caps_unref (priv->stamp_caps);
+
   g_free (priv);
 }
 
@@ -93,6 +125,14 @@ nns_pipeline_sink_priv_free (gpointer data, JNIEnv * env)
 {
   pipeline_sink_priv_data_s *priv = (pipeline_sink_priv_data_s *) data;
 
+  if (priv->sink_pad) {
+    gst_pad_remove_probe (priv->sink_pad, priv->probe_id);
+    gst_object_unref (priv->sink_pad);
+  }
+
+  if (priv->stamp_caps)
+    gst_caps_unref (priv->stamp_caps);
+
   ml_tensors_info_destroy (priv->out_info);
   if (priv->out_info_obj)
     (*env)->DeleteGlobalRef (env, priv->out_info_obj);
@@ -101,23 +141,75 @@ nns_pipeline_sink_priv_free (gpointer data, JNIEnv * env)
 }
 
 /**
- * @brief Update output info in sink node data.
+ * @brief Buffer probe of sink node, keeps the stamp of the buffer until the new-data callback is called.
+ * @note The stamp is carried in the reference timestamp meta with the caps of this pipeline, other buffers are not stamped.
  */
-static gboolean
-nns_pipeline_sink_priv_set_out_info (element_data_s * item, JNIEnv * env,
-    const ml_tensors_info_h out_info)
+static GstPadProbeReturn
+nns_pipeline_sink_probe_cb (GstPad * pad, GstPadProbeInfo * info,
+    gpointer user_data)
+{
+  pipeline_sink_priv_data_s *priv = (pipeline_sink_priv_data_s *) user_data;
+  GstBuffer *buffer = GST_PAD_PROBE_INFO_BUFFER (info);
+  GstReferenceTimestampMeta *meta;
+
+  meta = gst_buffer_get_reference_timestamp_meta (buffer, priv->stamp_caps);
+
+  /* the sink node calls the new-data callback in the same streaming thread */
+  if (meta) {
+    priv->sequence = meta->timestamp;
+    priv->timestamp = meta->duration;
+  } else {
+    priv->sequence = priv->timestamp = GST_BUFFER_OFFSET_NONE;
+  }
+
+  return GST_PAD_PROBE_OK;
+}
+
+/**
+ * @brief Get private data in sink node, create new one if it is not created.
+ */
+static pipeline_sink_priv_data_s *
+nns_pipeline_sink_priv_get (element_data_s * item)
 {
   pipeline_sink_priv_data_s *priv;
-  jobject obj_info = NULL;
+  GstElement *sink;
 
   if ((priv = item->priv_data) == NULL) {
     priv = g_new0 (pipeline_sink_priv_data_s, 1);
     ml_tensors_info_create_extended (&priv->out_info);
+    priv->sequence = priv->timestamp = GST_BUFFER_OFFSET_NONE;
+    priv->stamp_caps = gst_caps_ref (
+        ((pipeline_priv_data_s *) item->pipe_info->priv_data)->stamp_caps);
+
+    sink = _ml_pipeline_get_gst_element (item->handle);
+    if (sink) {
+      priv->sink_pad = gst_element_get_static_pad (sink, "sink");
+      if (priv->sink_pad)
+        priv->probe_id = gst_pad_add_probe (priv->sink_pad,
+            GST_PAD_PROBE_TYPE_BUFFER, nns_pipeline_sink_probe_cb, priv, NULL);
+
+      gst_object_unref (sink);
+    }
 
     item->priv_data = priv;
     item->priv_destroy_func = nns_pipeline_sink_priv_free;
   }
 
+  return priv;
+}
+
+/**
+ * @brief Update output info in sink node data.
+ */
+static gboolean
+nns_pipeline_sink_priv_set_out_info (element_data_s * item, JNIEnv * env,
+    const ml_tensors_info_h out_info)
+{
+  pipeline_sink_priv_data_s *priv;
+  jobject obj_info = NULL;
+
+  priv = nns_pipeline_sink_priv_get (item);
+
   if (ml_tensors_info_is_equal (out_info, priv->out_info)) {
     /* do nothing, tensors info is equal. */
     return TRUE;
@@ -178,6 +270,7 @@ nns_sink_data_cb (const ml_tensors_data_h data, const ml_tensors_info_h info,
   pipeline_priv_data_s *priv;
   pipeline_sink_priv_data_s *priv_sink;
   jobject obj_data = NULL;
+  gboolean converted;
   JNIEnv *env;
 
   item = (element_data_s *) user_data;
@@ -196,12 +289,24 @@ nns_sink_data_cb (const ml_tensors_data_h data, const ml_tensors_info_h info,
   priv = (pipeline_priv_data_s *) pipe_info->priv_data;
   priv_sink = (pipeline_sink_priv_data_s *) item->priv_data;
 
-  if (nns_convert_tensors_data (pipe_info, env, data, priv_sink->out_info_obj,
-          &obj_data)) {
+  /**
+   * In zero-copy mode, data object wraps the mapped memory of the buffer.
+   * The buffer is valid until this callback returns. Java handles the callbacks of zero-copy sink as borrowed ones,
+   * so the data object is always closed after calling the callbacks and does not refer to the buffer afterwards.
+   */
+  if (priv_sink->zero_copy)
+    converted = nns_wrap_tensors_data (pipe_info, env, data,
+        priv_sink->out_info_obj, TRUE, &obj_data);
+  else
+    converted = nns_convert_tensors_data (pipe_info, env, data,
+        priv_sink->out_info_obj, &obj_data);
+
+  if (converted) {
     jstring sink_name = (*env)->NewStringUTF (env, item->name);
 
     (*env)->CallVoidMethod (env, pipe_info->instance, priv->mid_sink_cb,
-        sink_name, obj_data);
+        sink_name, obj_data, (jlong) priv_sink->sequence,
+        (jlong) priv_sink->timestamp);
 
     if ((*env)->ExceptionCheck (env)) {
       _ml_loge ("Failed to call the new-data callback method.");
@@ -502,7 +607,13 @@ nns_native_pipe_construct (JNIEnv * env, jobject thiz, jstring description,
       (*env)->GetMethodID (env, pipe_info->cls, "stateChanged", "(I)V");
   priv->mid_sink_cb =
       (*env)->GetMethodID (env, pipe_info->cls, "newDataReceived",
-      "(Ljava/lang/String;L" NNS_CLS_TDATA ";)V");
+      "(Ljava/lang/String;L" NNS_CLS_TDATA ";JJ)V");
+  priv->mid_transfer_cb =
+      (*env)->GetMethodID (env, pipe_info->cls, "transferCompleted",
+      "(Ljava/lang/Object;)V");
+  /* the reference of the stamp, to identify the buffers pushed from this pipeline */
+  priv->stamp_caps = gst_caps_new_simple ("timestamp/x-nnstreamer-stamp",
+      "pipeline", G_TYPE_UINT64, (guint64) (gsize) pipe_info, NULL);
 
   nns_set_priv_data (pipe_info, priv, nns_pipeline_priv_free);
 
@@ -627,6 +738,339 @@ nns_native_pipe_get_state (JNIEnv * env, jobject thiz, jlong handle)
   return (jint) state;
 }
 
+/**
+ * @brief Push tensors data object to the source node.
+ */
+static gboolean
+nns_pipe_src_input_data (pipeline_info_s * pipe_info, JNIEnv * env,
+    ml_pipeline_src_h src, jobject in)
+{
+  ml_tensors_data_h in_data = NULL;
+  int status;
+
+  if (!nns_parse_tensors_data (pipe_info, env, in, TRUE, NULL, &in_data)) {
+    _ml_loge ("Failed to parse input data.");
+    return FALSE;
+  }
+
+  status = ml_pipeline_src_input_data (src, in_data,
+      ML_PIPELINE_BUF_POLICY_AUTO_FREE);
+  if (status != ML_ERROR_NONE) {
+    _ml_loge ("Failed to input tensors data, error %d.", status);
+    return FALSE;
+  }
+
+  return TRUE;
+}
+
+/**
+ * @brief Check the size of each tensor is matched with the information of source node.
+ */
+static gboolean
+nns_pipe_src_check_data_size (ml_tensors_info_h in_info,
+    ml_tensors_data_s * _data)
+{
+  guint i;
+
+  for (i = 0; i < _data->num_tensors; i++) {
+    size_t size = 0;
+
+    ml_tensors_info_get_tensor_size (in_info, i, &size);
+    if (size != _data->tensors[i].size) {
+      _ml_loge ("The size of data[%u] %zd is not matched with %zd.", i,
+          _data->tensors[i].size, size);
+      return FALSE;
+    }
+  }
+
+  return TRUE;
+}
+
+/**
+ * @brief Create new buffer with the copied memory of tensors data object.
+ */
+static GstBuffer *
+nns_pipe_src_new_buffer (pipeline_info_s * pipe_info, JNIEnv * env,
+    jobject in, ml_tensors_info_h in_info)
+{
+  ml_tensors_data_h in_data = NULL;
+  ml_tensors_data_s *_data;
+  GstBuffer *buffer = NULL;
+  guint i;
+
+  if (!nns_parse_tensors_data (pipe_info, env, in, TRUE, in_info, &in_data)) {
+    _ml_loge ("Failed to parse input data.");
+    return NULL;
+  }
+
+  _data = (ml_tensors_data_s *) in_data;
+
+  if (nns_pipe_src_check_data_size (in_info, _data)) {
+    /* the buffer takes the cloned memory */
+    buffer = gst_buffer_new ();
+    for (i = 0; i < _data->num_tensors; i++) {
+      gst_buffer_append_memory (buffer,
+          gst_memory_new_wrapped (0, _data->tensors[i].data,
+              _data->tensors[i].size, 0, _data->tensors[i].size,
+              _data->tensors[i].data, g_free));
+      _data->tensors[i].data = NULL;
+    }
+  }
+
+  _ml_tensors_data_destroy_internal (in_data, TRUE);
+  return buffer;
+}
+
+/**
+ * @brief Push tensors data object with the sequence ID and timestamp to the source node.
+ * @note The stamp is carried in the reference timestamp meta with the caps of this pipeline,
+ * so that the offset fields set by other elements are not regarded as the stamp.
+ */
+static gboolean
+nns_pipe_src_input_stamped_data (pipeline_info_s * pipe_info, JNIEnv * env,
+    ml_pipeline_src_h src, jobject in, jlong sequence, jlong timestamp)
+{
+  pipeline_priv_data_s *priv;
+  ml_tensors_info_h in_info = NULL;
+  GstElement *appsrc = NULL;
+  GstBuffer *buffer;
+  GstFlowReturn ret;
+  gboolean res = FALSE;
+
+  priv = (pipeline_priv_data_s *) pipe_info->priv_data;
+
+  if (ml_pipeline_src_get_tensors_info (src, &in_info) != ML_ERROR_NONE) {
+    _ml_loge ("Failed to get the information of source node.");
+    goto done;
+  }
+
+  appsrc = _ml_pipeline_get_gst_element (src);
+  if (appsrc == NULL) {
+    _ml_loge ("Failed to get the element of source node.");
+    goto done;
+  }
+
+  buffer = nns_pipe_src_new_buffer (pipe_info, env, in, in_info);
+  if (buffer == NULL) {
+    _ml_loge ("Failed to create the buffer of input data.");
+    goto done;
+  }
+
+  gst_buffer_add_reference_timestamp_meta (buffer, priv->stamp_caps,
+      (GstClockTime) sequence, (GstClockTime) timestamp);
+
+  /* appsrc takes the buffer */
+  ret = gst_app_src_push_buffer (GST_APP_SRC (appsrc), buffer);
+  if (ret != GST_FLOW_OK) {
+    _ml_loge ("Failed to push the buffer, flow return %d.", ret);
+    goto done;
+  }
+
+  res = TRUE;
+
+done:
+  if (appsrc)
+    gst_object_unref (appsrc);
+  if (in_info)
+    ml_tensors_info_destroy (in_info);
+  return res;
+}
+
+/**
+ * @brief Push the array of tensors data object to the source node.
+ * @note If timestamp is not negative, each frame has the timestamp and duration in nanoseconds,
+ * and the frames are pushed to appsrc at once as a buffer list.
+ */
+static gboolean
+nns_pipe_src_input_data_list (pipeline_info_s * pipe_info, JNIEnv * env,
+    ml_pipeline_src_h src, jobjectArray in_list, jlong timestamp,
+    jlong duration)
+{
+  ml_tensors_info_h in_info = NULL;
+  GstElement *appsrc = NULL;
+  GstBufferList *buffer_list = NULL;
+  GstFlowReturn ret;
+  guint i, total;
+  gboolean res = FALSE;
+
+  total = (guint) (*env)->GetArrayLength (env, in_list);
+
+  if (timestamp < 0) {
+    /* push each frame without the timestamp */
+    for (i = 0; i < total; i++) {
+      jobject in = (*env)->GetObjectArrayElement (env, in_list, i);
+      gboolean pushed = nns_pipe_src_input_data (pipe_info, env, src, in);
+
+      (*env)->DeleteLocalRef (env, in);
+      if (!pushed) {
+        _ml_loge ("Failed to input tensors data [%u/%u].", i, total);
+        return FALSE;
+      }
+    }
+
+    return TRUE;
+  }
+
+  if (ml_pipeline_src_get_tensors_info (src, &in_info) != ML_ERROR_NONE) {
+    _ml_loge ("Failed to get the information of source node.");
+    goto done;
+  }
+
+  appsrc = _ml_pipeline_get_gst_element (src);
+  if (appsrc == NULL) {
+    _ml_loge ("Failed to get the element of source node.");
+    goto done;
+  }
+
+  buffer_list = gst_buffer_list_new_sized (total);
+
+  for (i = 0; i < total; i++) {
+    jobject in = (*env)->GetObjectArrayElement (env, in_list, i);
+    GstBuffer *buffer;
+
+    buffer = nns_pipe_src_new_buffer (pipe_info, env, in, in_info);
+    (*env)->DeleteLocalRef (env, in);
+
+    if (buffer == NULL) {
+      _ml_loge ("Failed to create the buffer of input data [%u/%u].", i, total);
+      goto done;
+    }
+
+    GST_BUFFER_PTS (buffer) = (GstClockTime) (timestamp + duration * i);
+    GST_BUFFER_DURATION (buffer) = (GstClockTime) duration;
+    gst_buffer_list_add (buffer_list, buffer);
+  }
+
+  /* appsrc takes the buffer list */
+  ret = gst_app_src_push_buffer_list (GST_APP_SRC (appsrc), buffer_list);
+  buffer_list = NULL;
+
+  if (ret != GST_FLOW_OK) {
+    _ml_loge ("Failed to push the buffer list, flow return %d.", ret);
+    goto done;
+  }
+
+  res = TRUE;
+
+done:
+  if (buffer_list)
+    gst_buffer_list_unref (buffer_list);
+  if (appsrc)
+    gst_object_unref (appsrc);
+  if (in_info)
+    ml_tensors_info_destroy (in_info);
+  return res;
+}
+
+/**
+ * @brief Release the memory of TensorsData object, notify Java when all memories in the buffer are released.
+ */
+static void
+nns_pipe_transfer_mem_free (gpointer data)
+{
+  pipeline_transfer_data_s *transfer = (pipeline_transfer_data_s *) data;
+  pipeline_info_s *pipe_info;
+  JNIEnv *env;
+
+  if (!g_atomic_int_dec_and_test (&transfer->remaining))
+    return;
+
+  pipe_info = transfer->pipe_info;
+
+  if ((env = nns_get_jni_env (pipe_info)) == NULL) {
+    _ml_logw ("Cannot get jni env to release the transferred data.");
+    g_free (transfer);
+    return;
+  }
+
+  (*env)->CallVoidMethod (env, pipe_info->instance, transfer->mid_transfer_cb,
+      transfer->request);
+
+  if ((*env)->ExceptionCheck (env)) {
+    _ml_loge ("Failed to call the transfer-completed method.");
+    (*env)->ExceptionClear (env);
+  }
+
+  (*env)->DeleteGlobalRef (env, transfer->request);
+  g_free (transfer);
+}
+
+/**
+ * @brief Push tensors data object to the source node without copying the data.
+ * @note The buffer holds the request object until all memories in the buffer are released.
+ */
+static gboolean
+nns_pipe_src_transfer_data (pipeline_info_s * pipe_info, JNIEnv * env,
+    ml_pipeline_src_h src, jobject in, jobject request)
+{
+  pipeline_priv_data_s *priv;
+  pipeline_transfer_data_s *transfer;
+  ml_tensors_info_h in_info = NULL;
+  ml_tensors_data_h in_data = NULL;
+  ml_tensors_data_s *_data;
+  GstElement *appsrc = NULL;
+  GstBuffer *buffer;
+  GstFlowReturn ret;
+  guint i;
+  gboolean res = FALSE;
+
+  priv = (pipeline_priv_data_s *) pipe_info->priv_data;
+
+  if (ml_pipeline_src_get_tensors_info (src, &in_info) != ML_ERROR_NONE) {
+    _ml_loge ("Failed to get the information of source node.");
+    goto done;
+  }
+
+  if (!nns_parse_tensors_data (pipe_info, env, in, FALSE, in_info, &in_data)) {
+    _ml_loge ("Failed to parse input data.");
+    goto done;
+  }
+
+  _data = (ml_tensors_data_s *) in_data;
+
+  if (!nns_pipe_src_check_data_size (in_info, _data))
+    goto done;
+
+  appsrc = _ml_pipeline_get_gst_element (src);
+  if (appsrc == NULL) {
+    _ml_loge ("Failed to get the element of source node.");
+    goto done;
+  }
+
+  transfer = g_new0 (pipeline_transfer_data_s, 1);
+  transfer->pipe_info = pipe_info;
+  transfer->mid_transfer_cb = priv->mid_transfer_cb;
+  transfer->request = (*env)->NewGlobalRef (env, request);
+  transfer->remaining = (gint) _data->num_tensors;
+
+  buffer = gst_buffer_new ();
+  for (i = 0; i < _data->num_tensors; i++) {
+    GstMemory *mem = gst_memory_new_wrapped (GST_MEMORY_FLAG_READONLY,
+        _data->tensors[i].data, _data->tensors[i].size, 0,
+        _data->tensors[i].size, transfer, nns_pipe_transfer_mem_free);
+
+    gst_buffer_append_memory (buffer, mem);
+  }
+
+  /* appsrc takes the buffer, the request is released when the buffer is freed. */
+  ret = gst_app_src_push_buffer (GST_APP_SRC (appsrc), buffer);
+  if (ret != GST_FLOW_OK) {
+    _ml_loge ("Failed to push the buffer, flow return %d.", ret);
+    goto done;
+  }
+
+  res = TRUE;
+
+done:
+  if (appsrc)
+    gst_object_unref (appsrc);
+  if (in_data)
+    _ml_tensors_data_destroy_internal (in_data, FALSE);
+  if (in_info)
+    ml_tensors_info_destroy (in_info);
+  return res;
+}
+
 /**
  * @brief Native method for pipeline API.
  */
@@ -636,8 +1080,6 @@ nns_native_pipe_input_data (JNIEnv * env, jobject thiz, jlong handle,
 {
   pipeline_info_s *pipe_info = NULL;
   ml_pipeline_src_h src;
-  ml_tensors_data_h in_data = NULL;
-  int status;
   jboolean res = JNI_FALSE;
   const char *element_name = (*env)->GetStringUTFChars (env, name, NULL);
 
@@ -648,14 +1090,39 @@ nns_native_pipe_input_data (JNIEnv * env, jobject thiz, jlong handle,
     goto done;
   }
 
-  if (!nns_parse_tensors_data (pipe_info, env, in, TRUE, NULL, &in_data)) {
-    _ml_loge ("Failed to parse input data.");
+  if (!nns_pipe_src_input_data (pipe_info, env, src, in)) {
+    _ml_loge ("Failed to input tensors data to source node %s.", element_name);
     goto done;
   }
 
-  status = ml_pipeline_src_input_data (src, in_data,
-      ML_PIPELINE_BUF_POLICY_AUTO_FREE);
-  if (status != ML_ERROR_NONE) {
+  res = JNI_TRUE;
+
+done:
+  (*env)->ReleaseStringUTFChars (env, name, element_name);
+  return res;
+}
+
+/**
+ * @brief Native method for pipeline API.
+ */
+static jboolean
+nns_native_pipe_input_data_list (JNIEnv * env, jobject thiz, jlong handle,
+    jstring name, jobjectArray in_list, jlong timestamp, jlong duration)
+{
+  pipeline_info_s *pipe_info = NULL;
+  ml_pipeline_src_h src;
+  jboolean res = JNI_FALSE;
+  const char *element_name = (*env)->GetStringUTFChars (env, name, NULL);
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+
+  src = (ml_pipeline_src_h) nns_get_src_handle (pipe_info, element_name);
+  if (src == NULL) {
+    goto done;
+  }
+
+  if (!nns_pipe_src_input_data_list (pipe_info, env, src, in_list, timestamp,
+          duration)) {
     _ml_loge ("Failed to input tensors data to source node %s.", element_name);
     goto done;
   }
@@ -667,6 +1134,146 @@ done:
   return res;
 }
 
+/**
+ * @brief Native method for pipeline API.
+ */
+static jlong
+nns_native_pipe_get_src_handle (JNIEnv * env, jobject thiz, jlong handle,
+    jstring name)
+{
+  pipeline_info_s *pipe_info;
+  ml_pipeline_src_h src;
+  const char *element_name = (*env)->GetStringUTFChars (env, name, NULL);
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+
+  src = (ml_pipeline_src_h) nns_get_src_handle (pipe_info, element_name);
+
+  (*env)->ReleaseStringUTFChars (env, name, element_name);
+  return CAST_TO_LONG (src);
+}
+
+/**
+ * @brief Native method for pipeline API.
+ */
+static jboolean
+nns_native_pipe_src_input_data (JNIEnv * env, jobject thiz, jlong handle,
+    jlong src_handle, jobject in)
+{
+  pipeline_info_s *pipe_info;
+  ml_pipeline_src_h src;
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+  src = CAST_TO_TYPE (src_handle, ml_pipeline_src_h);
+
+  if (!nns_pipe_src_input_data (pipe_info, env, src, in)) {
+    _ml_loge ("Failed to input tensors data to source node.");
+    return JNI_FALSE;
+  }
+
+  return JNI_TRUE;
+}
+
+/**
+ * @brief Native method for pipeline API.
+ */
+static jboolean
+nns_native_pipe_src_input_stamped_data (JNIEnv * env, jobject thiz,
+    jlong handle, jlong src_handle, jobject in, jlong sequence,
+    jlong timestamp)
+{
+  pipeline_info_s *pipe_info;
+  ml_pipeline_src_h src;
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+  src = CAST_TO_TYPE (src_handle, ml_pipeline_src_h);
+
+  if (!nns_pipe_src_input_stamped_data (pipe_info, env, src, in, sequence,
+          timestamp)) {
+    _ml_loge ("Failed to input stamped data to source node.");
+    return JNI_FALSE;
+  }
+
+  return JNI_TRUE;
+}
+
+/**
+ * @brief Native method for pipeline API.
+ * @return The status of pushing data (nns_pipe_input_status_e), or -1 if failed to push the data.
+ */
+static jint
+nns_native_pipe_src_try_input_data (JNIEnv * env, jobject thiz, jlong handle,
+    jlong src_handle, jobject in)
+{
+  pipeline_info_s *pipe_info;
+  ml_pipeline_src_h src;
+  ml_pipeline_state_e state;
+  GstElement *appsrc;
+  guint64 level, max_bytes;
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+  src = CAST_TO_TYPE (src_handle, ml_pipeline_src_h);
+
+  if (ml_pipeline_get_state (pipe_info->pipeline_handle,
+          &state) != ML_ERROR_NONE) {
+    _ml_loge ("Failed to get the pipeline state.");
+    return -1;
+  }
+
+  if (state != ML_PIPELINE_STATE_PLAYING)
+    return NNS_PIPE_INPUT_NOT_PLAYING;
+
+  appsrc = _ml_pipeline_get_gst_element (src);
+  if (appsrc == NULL) {
+    _ml_loge ("Failed to get the element of source node.");
+    return -1;
+  }
+
+  level = gst_app_src_get_current_level_bytes (GST_APP_SRC (appsrc));
+  max_bytes = gst_app_src_get_max_bytes (GST_APP_SRC (appsrc));
+  gst_object_unref (appsrc);
+
+  /* do not push the data, appsrc may block or drop it when the queue is full. */
+  if (max_bytes > 0 && level >= max_bytes)
+    return NNS_PIPE_INPUT_QUEUE_FULL;
+
+  if (!nns_pipe_src_input_data (pipe_info, env, src, in)) {
+    _ml_loge ("Failed to input tensors data to source node.");
+    return -1;
+  }
+
+  return NNS_PIPE_INPUT_ACCEPTED;
+}
+
+/**
+ * @brief Native method for pipeline API.
+ * @return The current level or the capacity of the queue in bytes, or -1 if failed.
+ */
+static jlong
+nns_native_pipe_src_get_queue_bytes (JNIEnv * env, jobject thiz,
+    jlong src_handle, jboolean capacity)
+{
+  ml_pipeline_src_h src;
+  GstElement *appsrc;
+  guint64 bytes;
+
+  src = CAST_TO_TYPE (src_handle, ml_pipeline_src_h);
+
+  appsrc = _ml_pipeline_get_gst_element (src);
+  if (appsrc == NULL) {
+    _ml_loge ("Failed to get the element of source node.");
+    return -1;
+  }
+
+  if (capacity)
+    bytes = gst_app_src_get_max_bytes (GST_APP_SRC (appsrc));
+  else
+    bytes = gst_app_src_get_current_level_bytes (GST_APP_SRC (appsrc));
+
+  gst_object_unref (appsrc);
+  return (jlong) bytes;
+}
+
 /**
  * @brief Native method for pipeline API.
  */
@@ -796,11 +1403,115 @@ done:
  * @brief Native method for pipeline API.
  */
 static jboolean
-nns_native_pipe_add_sink_cb (JNIEnv * env, jobject thiz, jlong handle,
+nns_native_pipe_src_transfer_data (JNIEnv * env, jobject thiz, jlong handle,
+    jlong src_handle, jobject in, jobject request)
+{
+  pipeline_info_s *pipe_info;
+  ml_pipeline_src_h src;
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+  src = CAST_TO_TYPE (src_handle, ml_pipeline_src_h);
+
+  if (!nns_pipe_src_transfer_data (pipe_info, env, src, in, request)) {
+    _ml_loge ("Failed to transfer tensors data to source node.");
+    return JNI_FALSE;
+  }
+
+  return JNI_TRUE;
+}
+
+/**
+ * @brief Native method for pipeline API.
+ */
+static jlong
+nns_native_pipe_get_switch_handle (JNIEnv * env, jobject thiz, jlong handle,
+    jstring name)
+{
+  pipeline_info_s *pipe_info;
+  ml_pipeline_switch_h node;
+  const char *element_name = (*env)->GetStringUTFChars (env, name, NULL);
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+
+  node = (ml_pipeline_switch_h) nns_get_switch_handle (pipe_info, element_name);
+
+  (*env)->ReleaseStringUTFChars (env, name, element_name);
+  return CAST_TO_LONG (node);
+}
+
+/**
+ * @brief Native method for pipeline API.
+ */
+static jboolean
+nns_native_pipe_switch_select (JNIEnv * env, jobject thiz, jlong switch_handle,
+    jstring pad)
+{
+  ml_pipeline_switch_h node;
+  int status;
+  const char *pad_name = (*env)->GetStringUTFChars (env, pad, NULL);
+
+  node = CAST_TO_TYPE (switch_handle, ml_pipeline_switch_h);
+
+  status = ml_pipeline_switch_select (node, pad_name);
+  if (status != ML_ERROR_NONE) {
+    _ml_loge ("Failed to select switch pad %s.", pad_name);
+  }
+
+  (*env)->ReleaseStringUTFChars (env, pad, pad_name);
+  return (status == ML_ERROR_NONE) ? JNI_TRUE : JNI_FALSE;
+}
+
+/**
+ * @brief Native method for pipeline API.
+ */
+static jlong
+nns_native_pipe_get_valve_handle (JNIEnv * env, jobject thiz, jlong handle,
     jstring name)
+{
+  pipeline_info_s *pipe_info;
+  ml_pipeline_valve_h node;
+  const char *element_name = (*env)->GetStringUTFChars (env, name, NULL);
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+
+  node = (ml_pipeline_valve_h) nns_get_valve_handle (pipe_info, element_name);
+
+  (*env)->ReleaseStringUTFChars (env, name, element_name);
+  return CAST_TO_LONG (node);
+}
+
+/**
+ * @brief Native method for pipeline API.
+ */
+static jboolean
+nns_native_pipe_valve_set_open (JNIEnv * env, jobject thiz, jlong valve_handle,
+    jboolean open)
+{
+  ml_pipeline_valve_h node;
+  int status;
+
+  node = CAST_TO_TYPE (valve_handle, ml_pipeline_valve_h);
+
+  status = ml_pipeline_valve_set_open (node, (open == JNI_TRUE));
+  if (status != ML_ERROR_NONE) {
+    _ml_loge ("Failed to control valve.");
+    return JNI_FALSE;
+  }
+
+  return JNI_TRUE;
+}
+
+/**
+ * @brief Native method for pipeline API.
+ */
+static jboolean
+nns_native_pipe_add_sink_cb (JNIEnv * env, jobject thiz, jlong handle,
+    jstring name, jboolean zero_copy)
 {
   pipeline_info_s *pipe_info = NULL;
   ml_pipeline_sink_h sink;
+  element_data_s *item;
+  pipeline_sink_priv_data_s *priv;
   jboolean res = JNI_FALSE;
   const char *element_name = (*env)->GetStringUTFChars (env, name, NULL);
 
@@ -811,6 +1522,14 @@ nns_native_pipe_add_sink_cb (JNIEnv * env, jobject thiz, jlong handle,
     goto done;
   }
 
+  item = nns_get_element_data (pipe_info, element_name);
+  if (item == NULL) {
+    goto done;
+  }
+
+  priv = nns_pipeline_sink_priv_get (item);
+  priv->zero_copy = (zero_copy == JNI_TRUE);
+
   res = JNI_TRUE;
 
 done:
@@ -985,13 +1704,35 @@ static JNINativeMethod native_methods_pipeline[] = {
       (void *) nns_native_pipe_get_state},
   {(char *) "nativeInputData", (char *) "(JLjava/lang/String;L" NNS_CLS_TDATA ";)Z",
       (void *) nns_native_pipe_input_data},
+  {(char *) "nativeInputDataList", (char *) "(JLjava/lang/String;[L" NNS_CLS_TDATA ";JJ)Z",
+      (void *) nns_native_pipe_input_data_list},
   {(char *) "nativeGetSwitchPads", (char *) "(JLjava/lang/String;)[Ljava/lang/String;",
       (void *) nns_native_pipe_get_switch_pads},
   {(char *) "nativeSelectSwitchPad", (char *) "(JLjava/lang/String;Ljava/lang/String;)Z",
       (void *) nns_native_pipe_select_switch_pad},
   {(char *) "nativeControlValve", (char *) "(JLjava/lang/String;Z)Z",
       (void *) nns_native_pipe_control_valve},
-  {(char *) "nativeAddSinkCallback", (char *) "(JLjava/lang/String;)Z",
+  {(char *) "nativeGetSourceHandle", (char *) "(JLjava/lang/String;)J",
+      (void *) nns_native_pipe_get_src_handle},
+  {(char *) "nativeSourceInputData", (char *) "(JJL" NNS_CLS_TDATA ";)Z",
+      (void *) nns_native_pipe_src_input_data},
+  {(char *) "nativeSourceInputStampedData", (char *) "(JJL" NNS_CLS_TDATA ";JJ)Z",
+      (void *) nns_native_pipe_src_input_stamped_data},
+  {(char *) "nativeSourceTryInputData", (char *) "(JJL" NNS_CLS_TDATA ";)I",
+      (void *) nns_native_pipe_src_try_input_data},
+  {(char *) "nativeSourceGetQueueBytes", (char *) "(JZ)J",
+      (void *) nns_native_pipe_src_get_queue_bytes},
+  {(char *) "nativeSourceTransferData", (char *) "(JJL" NNS_CLS_TDATA ";Ljava/lang/Object;)Z",
+      (void *) nns_native_pipe_src_transfer_data},
+  {(char *) "nativeGetSwitchHandle", (char *) "(JLjava/lang/String;)J",
+      (void *) nns_native_pipe_get_switch_handle},
+  {(char *) "nativeSwitchSelect", (char *) "(JLjava/lang/String;)Z",
+      (void *) nns_native_pipe_switch_select},
+  {(char *) "nativeGetValveHandle", (char *) "(JLjava/lang/String;)J",
+      (void *) nns_native_pipe_get_valve_handle},
+  {(char *) "nativeValveSetOpen", (char *) "(JZ)Z",
+      (void *) nns_native_pipe_valve_set_open},
+  {(char *) "nativeAddSinkCallback", (char *) "(JLjava/lang/String;Z)Z",
       (void *) nns_native_pipe_add_sink_cb},
   {(char *) "nativeRemoveSinkCallback", (char *) "(JLjava/lang/String;)Z",
       (void *) nns_native_pipe_remove_sink_cb},
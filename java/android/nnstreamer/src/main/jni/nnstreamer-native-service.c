@@ -378,6 +378,55 @@ nns_native_service_input_data (JNIEnv * env, jobject thiz, jlong handle,
   return (status == ML_ERROR_NONE);
 }
 
+/**
+ * @brief Native method for ml-service API.
+ */
+static jboolean
+nns_native_service_input_data_list (JNIEnv * env, jobject thiz, jlong handle,
+    jstring node_name, jobjectArray in_list)
+{
+  pipeline_info_s *pipe_info;
+  ml_service_h service;
+  ml_tensors_data_h in_data = NULL;
+  int status = ML_ERROR_NONE;
+  guint i, total;
+
+  const char *name =
+      (node_name) ? (*env)->GetStringUTFChars (env, node_name, NULL) : NULL;
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+  service = pipe_info->pipeline_handle;
+  total = (guint) (*env)->GetArrayLength (env, in_list);
+
+  for (i = 0; i < total && status == ML_ERROR_NONE; i++) {
+    jobject in = (*env)->GetObjectArrayElement (env, in_list, i);
+
+    if (nns_parse_tensors_data (pipe_info, env, in, FALSE, NULL, &in_data)) {
+      status = ml_service_request (service, name, in_data);
+      if (status != ML_ERROR_NONE) {
+        _ml_loge ("Failed to request ml-service processing [%u/%u].", i, total);
+      }
+    } else {
+      _ml_loge ("Failed to parse input data [%u/%u].", i, total);
+      status = ML_ERROR_INVALID_PARAMETER;
+    }
+
+    /* Do not free input tensors (direct access from object). */
+    if (in_data) {
+      _ml_tensors_data_destroy_internal (in_data, FALSE);
+      in_data = NULL;
+    }
+
+    (*env)->DeleteLocalRef (env, in);
+  }
+
+  if (node_name) {
+    (*env)->ReleaseStringUTFChars (env, node_name, name);
+  }
+
+  return (status == ML_ERROR_NONE);
+}
+
 /**
  * @brief Native method for ml-service API.
  */
@@ -791,6 +840,8 @@ static JNINativeMethod native_methods_service[] = {
       (void *) nns_native_service_stop},
   {(char *) "nativeInputData", (char *) "(JLjava/lang/String;L" NNS_CLS_TDATA ";)Z",
       (void *) nns_native_service_input_data},
+  {(char *) "nativeInputDataList", (char *) "(JLjava/lang/String;[L" NNS_CLS_TDATA ";)Z",
+      (void *) nns_native_service_input_data_list},
   {(char *) "nativeGetInputInfo", (char *) "(JLjava/lang/String;)L" NNS_CLS_TINFO ";",
       (void *) nns_native_service_get_input_info},
   {(char *) "nativeGetOutputInfo", (char *) "(JLjava/lang/String;)L" NNS_CLS_TINFO ";",
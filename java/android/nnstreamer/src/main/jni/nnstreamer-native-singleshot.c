@@ -269,6 +269,77 @@ done:
   return result;
 }
 
+/**
+ * @brief Native method for single-shot API, invoke with the output data given from application.
+ */
+static jboolean
+nns_native_single_invoke_with_output (JNIEnv * env, jobject thiz, jlong handle,
+    jobject in, jobject out)
+{
+  pipeline_info_s *pipe_info;
+  singleshot_priv_data_s *priv;
+  ml_single_h single;
+  ml_tensors_data_h in_data, out_data;
+  ml_tensors_data_s *_out;
+  ml_tensors_info_s *out_info;
+  jboolean res = JNI_FALSE;
+  guint i;
+
+  pipe_info = CAST_TO_TYPE (handle, pipeline_info_s *);
+  priv = (singleshot_priv_data_s *) pipe_info->priv_data;
+  single = pipe_info->pipeline_handle;
+  in_data = out_data = NULL;
+
+  out_info = (ml_tensors_info_s *) priv->out_info;
+  if (out_info->info.format != _NNS_TENSOR_FORMAT_STATIC) {
+    _ml_loge ("Cannot invoke the model with flexible output data.");
+    goto done;
+  }
+
+  if (!nns_parse_tensors_data (pipe_info, env, in, FALSE, priv->in_info, &in_data)) {
+    _ml_loge ("Failed to parse input tensors data.");
+    goto done;
+  }
+
+  /* write the result into the direct buffers of given object */
+  if (!nns_parse_tensors_data (pipe_info, env, out, FALSE, priv->out_info, &out_data)) {
+    _ml_loge ("Failed to parse output tensors data.");
+    goto done;
+  }
+
+  _out = (ml_tensors_data_s *) out_data;
+  if (_out->num_tensors != out_info->info.num_tensors) {
+    _ml_loge ("The number of output tensors is not matched (%u, required %u).",
+        _out->num_tensors, out_info->info.num_tensors);
+    goto done;
+  }
+
+  for (i = 0; i < _out->num_tensors; i++) {
+    size_t size = 0;
+
+    ml_tensors_info_get_tensor_size (priv->out_info, (int) i, &size);
+    if (_out->tensors[i].size != size) {
+      _ml_loge ("The size of output tensor %u is not matched (%zd, required %zd).",
+          i, _out->tensors[i].size, size);
+      goto done;
+    }
+  }
+
+  if (ml_single_invoke_fast (single, in_data, out_data) != ML_ERROR_NONE) {
+    _ml_loge ("Failed to invoke the model.");
+    goto done;
+  }
+
+  res = JNI_TRUE;
+
+done:
+  /* do not free input/output tensors (direct access from object) */
+  _ml_tensors_data_destroy_internal (in_data, FALSE);
+  _ml_tensors_data_destroy_internal (out_data, FALSE);
+
+  return res;
+}
+
 /**
  * @brief Native method for single-shot API.
  */
@@ -455,6 +526,8 @@ static JNINativeMethod native_methods_singleshot[] = {
       (void *) nns_native_single_close},
   {(char *) "nativeInvoke", (char *) "(JL" NNS_CLS_TDATA ";)L" NNS_CLS_TDATA ";",
       (void *) nns_native_single_invoke},
+  {(char *) "nativeInvokeWithOutput", (char *) "(JL" NNS_CLS_TDATA ";L" NNS_CLS_TDATA ";)Z",
+      (void *) nns_native_single_invoke_with_output},
   {(char *) "nativeGetInputInfo", (char *) "(J)L" NNS_CLS_TINFO ";",
       (void *) nns_native_single_get_input_info},
   {(char *) "nativeGetOutputInfo", (char *) "(J)L" NNS_CLS_TINFO ";",